@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import util.AnimationReader;
+
+/**
+ * This class loads the animation files that are packaged with the benchmarks. The files are read
+ * into memory once, so the benchmarks that parse them do not measure the disk.
+ */
+public final class AnimationFiles {
+
+  private AnimationFiles() {
+  }
+
+  /**
+   * Returns the text of an animation file from the files directory of the project.
+   *
+   * @param name the name of the file, for example "hanoi.txt"
+   * @return the contents of the file
+   * @throws IllegalArgumentException if there is no such file
+   */
+  public static String read(String name) {
+    try (InputStream in = AnimationFiles.class.getResourceAsStream("/files/" + name)) {
+      if (in == null) {
+        throw new IllegalArgumentException("No animation file " + name);
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Animation file " + name + " could not be read.");
+    }
+  }
+
+  /**
+   * Parses an animation file into a model built by {@link AnimationModelImpl.Builder}.
+   *
+   * @param name the name of the file
+   * @return the model of the animation
+   */
+  public static IAnimationModel parse(String name) {
+    return AnimationReader.parseFile(new StringReader(read(name)),
+            new AnimationModelImpl.Builder());
+  }
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import model.IAnimationModel;
+import model.shapes.IShape2D;
+import view.TextView;
+
+/**
+ * Measures the operations that work on a built model: evaluating every shape at a tick, finding
+ * the end time and writing the text view. Each call of the tick benchmark moves on to the next
+ * tick of the animation, wrapping around after the end time, so every part of the timeline is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+  @Param({"smalldemo.txt", "buildings.txt", "hanoi.txt", "big-bang-big-crunch.txt",
+      "toh-8.txt", "toh-12.txt"})
+  public String file;
+
+  private IAnimationModel model;
+  private List<IShape2D> shapes;
+  private TextView textView;
+  private int endTime;
+  private int tick;
+
+  /**
+   * Builds the model of the file.
+   */
+  @Setup
+  public void setUp() {
+    this.model = AnimationFiles.parse(this.file);
+    this.shapes = this.model.getModelShapes();
+    this.textView = new TextView();
+    this.endTime = this.model.getEndTime();
+    this.tick = 0;
+  }
+
+  /**
+   * Evaluates every shape of the model at one tick with {@code generateAnimatedShape}.
+   *
+   * @param blackhole consumes the evaluated shapes
+   */
+  @Benchmark
+  public void generateAnimatedShapes(Blackhole blackhole) {
+    int tick = this.tick;
+    this.tick = tick >= this.endTime ? 0 : tick + 1;
+    for (IShape2D shape : this.shapes) {
+      blackhole.consume(shape.generateAnimatedShape(tick));
+    }
+  }
+
+  /**
+   * Finds the end time of the animation.
+   *
+   * @return the end time
+   */
+  @Benchmark
+  public int getEndTime() {
+    return this.model.getEndTime();
+  }
+
+  /**
+   * Writes the text view of the animation.
+   *
+   * @return the text, so that it is not optimized away
+   */
+  @Benchmark
+  public String textView() {
+    return this.textView.createView(this.model);
+  }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.IAnimationModel;
+import view.ViewPanel;
+
+/**
+ * Measures painting frames of an animation with {@link ViewPanel}, offscreen into an image the
+ * size of the panel. The clock of the panel is paused and moved one tick per call, so each call
+ * evaluates the next frame and paints all of it, the way the panel does after a resize.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+  private static final int SIZE = 800;
+
+  @Param({"smalldemo.txt", "buildings.txt", "hanoi.txt", "big-bang-big-crunch.txt",
+      "toh-8.txt"})
+  public String file;
+
+  private ViewPanel panel;
+  private BufferedImage image;
+  private Graphics2D graphics;
+  private int endTime;
+  private int tick;
+
+  /**
+   * Builds the model of the file and a panel that shows it.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    IAnimationModel model = AnimationFiles.parse(this.file);
+    this.endTime = model.getEndTime();
+    this.panel = new ViewPanel();
+    this.panel.setModel(model);
+    this.panel.setSize(SIZE, SIZE);
+    this.panel.getClock().pause();
+    this.image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+    this.graphics = this.image.createGraphics();
+    this.graphics.setClip(0, 0, SIZE, SIZE);
+    this.tick = 0;
+  }
+
+  /**
+   * Releases the graphics of the image.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.graphics.dispose();
+  }
+
+  /**
+   * Moves the panel to the next tick and paints the whole frame.
+   *
+   * @return the image painted into
+   */
+  @Benchmark
+  public BufferedImage paintComponent() {
+    int tick = this.tick;
+    this.tick = tick >= this.endTime ? 0 : tick + 1;
+    this.panel.setTick(tick);
+    this.panel.nextFrame();
+    this.panel.paintComponent(this.graphics);
+    return this.image;
+  }
+}
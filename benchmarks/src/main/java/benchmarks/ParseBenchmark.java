@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import util.AnimationReader;
+
+/**
+ * Measures parsing each animation file into a model with {@link AnimationModelImpl.Builder},
+ * which includes building the shapes and their animations. The file is read from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+  @Param({"smalldemo.txt", "buildings.txt", "hanoi.txt", "big-bang-big-crunch.txt",
+      "toh-3.txt", "toh-5.txt", "toh-8.txt", "toh-12.txt"})
+  public String file;
+
+  private String text;
+
+  /**
+   * Loads the file into memory.
+   */
+  @Setup
+  public void setUp() {
+    this.text = AnimationFiles.read(this.file);
+  }
+
+  /**
+   * Parses the file and builds the model.
+   *
+   * @return the model, so that it is not optimized away
+   */
+  @Benchmark
+  public IAnimationModel parseFile() {
+    return AnimationReader.parseFile(new StringReader(this.text),
+            new AnimationModelImpl.Builder());
+  }
+}
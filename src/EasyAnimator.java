@@ -1,8 +1,3 @@
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-
 import controller.IAnimationController;
 import controller.IAnimationControllerImpl;
 import model.IAnimationModel;
@@ -36,13 +31,7 @@ public class EasyAnimator {
 
     IAnimationController controller = new IAnimationControllerImpl(model, args);
 
-    try {
-      String inputFile = controller.getInputFile();
-      InputStream inputStream = new FileInputStream(inputFile);
-      AnimationReader.parseFile(new InputStreamReader(inputStream), builder);
-    } catch (FileNotFoundException ex) {
-      throw new IllegalArgumentException("File is not valid.");
-    }
+    AnimationReader.readFile(controller.getInputFile(), builder);
 
     controller.executeAnimation();
   }
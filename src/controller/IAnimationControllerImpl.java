@@ -1,12 +1,17 @@
 package controller;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Objects;
 
 import model.IAnimationModel;
+import util.BinaryAnimationReader;
 import view.IView;
 import view.ViewFactory;
+import view.ViewType;
 
 
 /**
@@ -19,9 +24,8 @@ public class IAnimationControllerImpl implements IAnimationController {
   private final IView view;
   private int tick;
   private String viewType;
-  private boolean outputValidator;
   private String inputFile;
-  private Appendable appendable = System.out;
+  private String output;
 
   /**
    * This constructor creates an instance of the controller. The controller parameters are the model
@@ -38,7 +42,7 @@ public class IAnimationControllerImpl implements IAnimationController {
     this.userInputReader(args);
     model.setTick(tick);
     ViewFactory viewCall = new ViewFactory();
-    view = viewCall.viewFactoryImpl(viewType, model);
+    view = viewCall.viewFactoryImpl(viewType, model, output);
   }
 
   /**
@@ -46,7 +50,8 @@ public class IAnimationControllerImpl implements IAnimationController {
    * input filled is passed in as an argument.
    *
    * @param args - arguments passed in by the user
-   * @throws IllegalArgumentException if the file passed in is invalid or if tick rate is negative
+   * @throws IllegalArgumentException if the file passed in is neither a text (.txt) nor a binary
+   *                                  scene (.esb) file or if tick rate is negative
    */
   private void userInputReader(String[] args) throws IllegalArgumentException {
 
@@ -59,7 +64,8 @@ public class IAnimationControllerImpl implements IAnimationController {
         if ((args[i + 1].length() > 0)) {
           switch (args[i]) {
             case "-in":
-              if ((args[i + 1].endsWith(".txt"))) {
+              if (args[i + 1].endsWith(".txt")
+                      || args[i + 1].endsWith(BinaryAnimationReader.EXTENSION)) {
                 inputFile = args[i + 1];
               } else {
                 throw new
@@ -70,14 +76,9 @@ public class IAnimationControllerImpl implements IAnimationController {
 
             case "-out":
               if (!args[i + 1].equalsIgnoreCase("out")) {
-                try {
-                  appendable = new FileWriter(args[i + 1]);
-                  outputValidator = false;
-                } catch (IOException ex) {
-                  throw new IllegalArgumentException("Output file could not be created");
-                }
+                output = args[i + 1];
               } else {
-                appendable = System.out;
+                output = null;
               }
               break;
 
@@ -112,25 +113,34 @@ public class IAnimationControllerImpl implements IAnimationController {
 
 
   /**
-   * This is the executeAnimation method that executes the animation.
+   * This is the executeAnimation method that executes the animation. The output file, if the user
+   * named one, is only created here, once the view is known: the offscreen view writes its frames
+   * itself, every other view is written through a buffered writer to the output file or to
+   * standard output as it is produced.
    *
    * @throws IllegalArgumentException if the view could not be created or if the output is invalid
    */
   @Override
   public void executeAnimation() throws IllegalArgumentException {
-    try {
-      appendable.append(view.createView(model));
-    } catch (IOException ex) {
-      throw new IllegalArgumentException("View could not be created.");
+    if (view.getViewType() == ViewType.OFFSCREEN) {
+      view.createView(model);
+      return;
     }
-
-    if (!outputValidator) {
+    if (output == null) {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(System.out));
       try {
-        ((FileWriter) appendable).flush();
-        ((FileWriter) appendable).close();
+        view.writeView(model, writer);
+        writer.flush();
       } catch (IOException ex) {
-        throw new IllegalStateException("Output is invalid.");
+        throw new IllegalArgumentException("View could not be created.");
       }
+      return;
+    }
+
+    try (Writer writer = new BufferedWriter(new FileWriter(output))) {
+      view.writeView(model, writer);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Output file could not be created");
     }
   }
 
@@ -1,10 +1,12 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import model.animations.ColorChange;
 import model.animations.IAnimation;
@@ -13,7 +15,10 @@ import model.animations.Scale;
 import model.shapes.IShape2D;
 import model.shapes.Oval;
 import model.shapes.Rectangle;
+import model.shapes.ShapeFrame;
+import model.shapes.ShapeTracks;
 import util.AnimationBuilder;
+import util.ChunkedAnimationBuilder;
 import util.Color;
 import util.Position;
 
@@ -25,23 +30,33 @@ import util.Position;
 public class AnimationModelImpl implements IAnimationModel {
 
   private ArrayList<IShape2D> shapesList;
-  private List<String> validModelShapes;
+  private HashMap<String, IShape2D> shapesByName;
   private ArrayList<IAnimation> animationList;
   public final static int WIDTH = 800;
   public final static int HEIGHT = 800;
   private int tick;
+  private int endTime;
+  private boolean endTimeStale;
   private HashMap<String, String> builderShapes;
+  private int canvasX;
+  private int canvasY;
+  private int canvasWidth;
+  private int canvasHeight;
+  private long modifications;
 
   /**
    * Constructs an animation model implementation object and initialises array lists that store
-   * shapes and animations, and a hashmap that stores shapes to be used by the builder.
+   * shapes and animations, a hashmap that indexes the shapes by name, and a hashmap that stores
+   * shapes to be used by the builder.
    */
   public AnimationModelImpl() {
     this.tick = 1;
     this.shapesList = new ArrayList<>();
+    this.shapesByName = new HashMap<>();
     this.animationList = new ArrayList<>();
-    validModelShapes = new ArrayList<>();
     builderShapes = new HashMap<>();
+    this.canvasWidth = WIDTH;
+    this.canvasHeight = HEIGHT;
   }
 
   /**
@@ -52,6 +67,9 @@ public class AnimationModelImpl implements IAnimationModel {
   @Override
   public void addShape(IShape2D shape) {
     this.shapesList.add(shape);
+    this.modifications++;
+    this.shapesByName.putIfAbsent(shape.getName(), shape);
+    this.endTime = Math.max(this.endTime, shapeEndTime(shape));
   }
 
   /**
@@ -64,6 +82,19 @@ public class AnimationModelImpl implements IAnimationModel {
   public void removeShape(IShape2D shape) throws IllegalArgumentException {
     if (shapesList.contains(shape)) {
       this.shapesList.remove(shape);
+      this.modifications++;
+      if (shapeEndTime(shape) >= this.endTime) {
+        this.endTimeStale = true;
+      }
+      if (this.shapesByName.get(shape.getName()) == shape) {
+        this.shapesByName.remove(shape.getName());
+        for (IShape2D other : this.shapesList) {
+          if (other.getName().equals(shape.getName())) {
+            this.shapesByName.put(other.getName(), other);
+            break;
+          }
+        }
+      }
     } else {
       throw new IllegalArgumentException("Shape not found. Please enter a valid shape to be "
               + "removed.");
@@ -79,13 +110,59 @@ public class AnimationModelImpl implements IAnimationModel {
   public void addAnimation(IAnimation animation) {
     Objects.requireNonNull(animation);
     this.animationList.add(animation);
-    for (IShape2D shape : this.getModelShapes()) {
-      if (animation.getShapeName().equals(shape.getName())) {
-        animation.animateShape(shape);
+    this.modifications++;
+    IShape2D shape = this.shapesByName.get(animation.getShapeName());
+    if (shape != null) {
+      animation.animateShape(shape);
+      this.endTime = Math.max(this.endTime, animation.getEndTime());
+    }
+  }
+
+  /**
+   * Adds animations that have already been added to the timelines of their shapes to the model,
+   * as {@link #addAnimation} would have. Null entries are skipped.
+   *
+   * @param animations the animations, in the order they were read
+   * @param count      the number of entries of the array to add
+   */
+  void addAnimated(IAnimation[] animations, int count) {
+    for (int i = 0; i < count; i++) {
+      if (animations[i] != null) {
+        this.animationList.add(animations[i]);
+        this.modifications++;
+        this.endTime = Math.max(this.endTime, animations[i].getEndTime());
       }
     }
   }
 
+  /**
+   * Returns the shape with the given name. If several shapes share the name, the one added first
+   * is returned.
+   *
+   * @param name the name of the shape
+   * @return the shape with the given name
+   * @throws IllegalArgumentException if the model has no shape with the given name
+   */
+  @Override
+  public IShape2D getShape(String name) throws IllegalArgumentException {
+    IShape2D shape = this.shapesByName.get(name);
+    if (shape == null) {
+      throw new IllegalArgumentException("Shape not found: " + name);
+    }
+    return shape;
+  }
+
+  /**
+   * Checks whether the model has a shape with the given name.
+   *
+   * @param name the name of the shape
+   * @return true if a shape with the given name has been added
+   */
+  @Override
+  public boolean hasShape(String name) {
+    return this.shapesByName.containsKey(name);
+  }
+
   /**
    * Returns the tick rate or speed of an animation model.
    *
@@ -118,36 +195,178 @@ public class AnimationModelImpl implements IAnimationModel {
 
   /**
    * Returns the end time of the animation, by checking for the last operation or shape exit times.
+   * The end time is kept up to date as shapes and animations are added, so reading it takes
+   * constant time; it is only recomputed after the shape that ended last has been removed. Changes
+   * made to a shape's animations without going through {@link #addAnimation} are not seen.
    *
-   * @return the end time of the animation
+   * @return the end time of the animation, or 0 if the model has no shapes
    */
   @Override
   public int getEndTime() {
+    if (this.endTimeStale) {
+      this.endTime = 0;
+      for (IShape2D shape : this.shapesList) {
+        this.endTime = Math.max(this.endTime, shapeEndTime(shape));
+      }
+      this.endTimeStale = false;
+    }
+    return this.endTime;
+  }
 
-    ArrayList<Integer> shapeTimes = new ArrayList<>();
-    ArrayList<IAnimation> allAnimations = new ArrayList<>();
-    ArrayList<Integer> validAnimationTime = new ArrayList<>();
+  /**
+   * Returns the later of a shape's exit time and the end of its last animation.
+   *
+   * @param shape the shape
+   * @return the time at which the shape is done
+   */
+  private static int shapeEndTime(IShape2D shape) {
+    return Math.max(shape.getEndTime(), shape.getTimeline().getMaxEndTime());
+  }
 
-    for (IShape2D shape : this.shapesList) {
-      shapeTimes.add(shape.getEndTime());
-      allAnimations.addAll(shape.getAnimation());
-    }
-    int shapesEndTime = Collections.max(shapeTimes);
+  /**
+   * Sets the bounding box of the canvas the animation is drawn on.
+   *
+   * @param x      the leftmost x value
+   * @param y      the topmost y value
+   * @param width  the width of the canvas
+   * @param height the height of the canvas
+   */
+  @Override
+  public void setCanvas(int x, int y, int width, int height) {
+    this.canvasX = x;
+    this.canvasY = y;
+    this.canvasWidth = width;
+    this.canvasHeight = height;
+    this.modifications++;
+  }
 
+  /**
+   * Returns the leftmost x value of the canvas.
+   *
+   * @return the leftmost x value
+   */
+  @Override
+  public int getCanvasX() {
+    return this.canvasX;
+  }
 
-    for (IAnimation animation : allAnimations) {
-      validAnimationTime.add(animation.getEndTime());
+  /**
+   * Returns the topmost y value of the canvas.
+   *
+   * @return the topmost y value
+   */
+  @Override
+  public int getCanvasY() {
+    return this.canvasY;
+  }
+
+  /**
+   * Returns the width of the canvas.
+   *
+   * @return the width of the canvas
+   */
+  @Override
+  public int getCanvasWidth() {
+    return this.canvasWidth;
+  }
+
+  /**
+   * Returns the height of the canvas.
+   *
+   * @return the height of the canvas
+   */
+  @Override
+  public int getCanvasHeight() {
+    return this.canvasHeight;
+  }
+
+  /**
+   * Returns a count that goes up every time a shape or an animation is added to or removed from
+   * the model, or its canvas is set.
+   *
+   * @return the number of changes made to the model
+   */
+  @Override
+  public long getModificationCount() {
+    return this.modifications;
+  }
+
+  /**
+   * Evaluates every shape of the model at a tick and writes the result into the frame buffer,
+   * which is resized to the number of shapes.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   */
+  @Override
+  public void evaluateFrame(int tick, FrameBuffer frame) {
+    frame.resize(this.shapesList.size());
+    evaluateFrame(tick, frame, 0, frame.size);
+    frame.listVisible();
+  }
+
+  /**
+   * Evaluates the shapes with an index in the given range at a tick, by evaluating each shape on
+   * its own, and writes the result into the frame buffer.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   * @param from  the index of the first shape to evaluate
+   * @param to    the index after the last shape to evaluate
+   */
+  @Override
+  public void evaluateFrame(int tick, FrameBuffer frame, int from, int to) {
+    ShapeFrame shapeFrame = new ShapeFrame();
+    for (int i = from; i < to; i++) {
+      evaluateShape(tick, frame, i, shapeFrame);
+    }
+    frame.packColors(from, to);
+    frame.tick = tick;
+  }
+
+  /**
+   * Evaluates the shapes listed at the given positions of the active list of the frame buffer at
+   * a tick, by evaluating each shape on its own, and writes the result into the frame buffer.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   * @param from  the first position in the active list to evaluate
+   * @param to    the position after the last one to evaluate
+   */
+  @Override
+  public void evaluateActive(int tick, FrameBuffer frame, int from, int to) {
+    ShapeFrame shapeFrame = new ShapeFrame();
+    for (int position = from; position < to; position++) {
+      int i = frame.active[position];
+      evaluateShape(tick, frame, i, shapeFrame);
+      frame.packColors(i, i + 1);
     }
-    int modelEndTime = Collections.max(validAnimationTime);
+    frame.tick = tick;
+  }
 
-    return Math.max(shapesEndTime, modelEndTime);
+  /**
+   * Evaluates one shape and copies its state into the frame buffer.
+   */
+  private void evaluateShape(int tick, FrameBuffer frame, int i, ShapeFrame shapeFrame) {
+    this.shapesList.get(i).evaluateFrame(tick, shapeFrame);
+    frame.channels[ShapeTracks.X][i] = shapeFrame.getX();
+    frame.channels[ShapeTracks.Y][i] = shapeFrame.getY();
+    frame.channels[ShapeTracks.WIDTH][i] = shapeFrame.getWidth();
+    frame.channels[ShapeTracks.HEIGHT][i] = shapeFrame.getHeight();
+    frame.channels[ShapeTracks.RED][i] = shapeFrame.getRed();
+    frame.channels[ShapeTracks.GREEN][i] = shapeFrame.getGreen();
+    frame.channels[ShapeTracks.BLUE][i] = shapeFrame.getBlue();
+    frame.visible[i] = shapeFrame.isVisible();
   }
 
   /**
    * This builder class implements the AnimationBuilder and has the functionality to be compatible
-   * with the model that was created.
+   * with the model that was created. Chunks of a file read in parallel are built into
+   * {@link Chunk}s, which build the animations of their motions on the pool, and are then merged
+   * shape by shape, so that the timelines of different shapes are filled in parallel as well.
    */
-  public static class Builder implements AnimationBuilder<IAnimationModel> {
+  public static class Builder
+          implements ChunkedAnimationBuilder<IAnimationModel, Builder.Chunk> {
 
     AnimationModelImpl model = new AnimationModelImpl();
     int x;
@@ -182,6 +401,7 @@ public class AnimationModelImpl implements IAnimationModel {
       this.y = y;
       this.width = width;
       this.height = height;
+      model.setCanvas(x, y, width, height);
       return this;
     }
 
@@ -239,27 +459,305 @@ public class AnimationModelImpl implements IAnimationModel {
                                                        int g1, int b1, int t2, int x2,
                                                        int y2, int w2, int h2,
                                                        int r2, int g2, int b2) {
-      if (!model.validModelShapes.contains(name)) {
-        if (model.builderShapes.get(name).equals("rectangle")) {
-          model.addShape(new Rectangle(name, new Position(x1, y1), new Color(r1, g1, b1),
-                  t1, 1000, w1, h1));
-        } else if (model.builderShapes.get(name).equals("ellipse")) {
-          model.addShape(new Oval(name, new Position(x1, y1), new Color(r1, g1, b1),
-                  t1, 1000, w1, h1));
+      if (!model.hasShape(name)) {
+        addShape(name, t1, x1, y1, w1, h1, r1, g1, b1);
+      } else {
+        for (IAnimation animation : motionAnimations(name, t1, x1, y1, w1, h1, r1, g1, b1,
+                t2, x2, y2, w2, h2, r2, g2, b2)) {
+          model.addAnimation(animation);
+        }
+      }
+      return this;
+    }
 
+    /**
+     * Makes an empty builder for one chunk of a file read in parallel.
+     *
+     * @return a builder for one chunk
+     */
+    @Override
+    public Chunk newChunk() {
+      return new Chunk();
+    }
+
+    /**
+     * Merges chunks of a file read in parallel into the model. The canvas, the shape declarations
+     * and the first motion of each shape in each chunk are applied in file order on the calling
+     * thread, which adds every shape whose first motion it comes across. The animations the chunks
+     * built are then added to the timelines of their shapes on the pool, one task per group of
+     * shapes, each shape taking its animations in file order.
+     *
+     * @param chunks the chunks to merge, in file order
+     * @param pool   the pool to fill the timelines of the shapes on
+     */
+    @Override
+    public void mergeChunks(List<Chunk> chunks, ForkJoinPool pool) {
+      Failure failure = new Failure();
+      HashMap<String, ArrayList<Track>> tracksByShape = new HashMap<>();
+      merge:
+      for (int c = 0; c < chunks.size(); c++) {
+        Chunk chunk = chunks.get(c);
+        for (Step step : chunk.steps) {
+          try {
+            if (step.track != null) {
+              Track track = step.track;
+              track.chunk = c;
+              if (!model.hasShape(track.name)) {
+                int[] v = track.first;
+                addShape(track.name, v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]);
+                // the first motion of the shape added it, so its animations are not used
+                track.created = true;
+                Arrays.fill(chunk.animations, track.motions[1], track.motions[2], null);
+              }
+              tracksByShape.computeIfAbsent(track.name, name -> new ArrayList<>()).add(track);
+            } else if (step.bounds != null) {
+              setBounds(step.bounds[0], step.bounds[1], step.bounds[2], step.bounds[3]);
+            } else {
+              declareShape(step.name, step.type);
+            }
+          } catch (RuntimeException ex) {
+            failure.offer(c, step.call, ex);
+            break merge;
+          }
         }
-        model.validModelShapes.add(name);
-      } else {
-        if (r1 != r2 || g1 != g2 || b1 != b2) {
-          model.addAnimation(new ColorChange(name, t1, t2, new Color(r1, g1, b1),
-                  new Color(r2, g2, b2)));
-        } else if (w1 != w2 || h1 != h2) {
-          model.addAnimation(new Scale(name, t1, t2, w1, h1, (w2 - w1), (h2 - h1)));
+      }
+
+      List<ArrayList<Track>> shapes = new ArrayList<>(tracksByShape.values());
+      int taskCount = Math.min(shapes.size(), 4 * pool.getParallelism());
+      ArrayList<ForkJoinTask<Failure>> tasks = new ArrayList<>(taskCount);
+      for (int t = 0; t < taskCount; t++) {
+        List<ArrayList<Track>> group = shapes.subList(shapes.size() * t / taskCount,
+                shapes.size() * (t + 1) / taskCount);
+        tasks.add(pool.submit(() -> animateShapes(chunks, group)));
+      }
+      for (ForkJoinTask<Failure> task : tasks) {
+        failure.offer(task.join());
+      }
+      if (failure.error != null) {
+        throw failure.error;
+      }
+
+      for (Chunk chunk : chunks) {
+        model.addAnimated(chunk.animations, chunk.animationCount);
+      }
+    }
+
+    /**
+     * Adds the animations of the given tracks to the timelines of their shapes. The tracks of each
+     * shape are given in file order.
+     *
+     * @return the first error raised for each shape, the earliest in file order kept
+     */
+    private Failure animateShapes(List<Chunk> chunks, List<ArrayList<Track>> shapes) {
+      Failure failure = new Failure();
+      for (ArrayList<Track> tracks : shapes) {
+        IShape2D shape = model.shapesByName.get(tracks.get(0).name);
+        shape:
+        for (Track track : tracks) {
+          IAnimation[] animations = chunks.get(track.chunk).animations;
+          int m = 0;
+          if (track.created) {
+            m = 1;
+          } else if (track.firstFailure != null) {
+            failure.offer(track.chunk, track.motions[0], track.firstFailure);
+            break shape;
+          }
+          for (; m < track.count; m++) {
+            int call = track.motions[3 * m];
+            try {
+              for (int i = track.motions[3 * m + 1]; i < track.motions[3 * m + 2]; i++) {
+                animations[i].animateShape(shape);
+              }
+            } catch (RuntimeException ex) {
+              failure.offer(track.chunk, call, ex);
+              break shape;
+            }
+            if (m == track.count - 1 && track.failure != null) {
+              failure.offer(track.chunk, call, track.failure);
+              break shape;
+            }
+          }
         }
-        model.addAnimation(new Move(name, t1, t2, new Position(x1, y1), new Position(x2, y2)));
+      }
+      return failure;
+    }
 
+    /**
+     * Adds the shape that the first motion of a shape stands for, of the type it was declared with.
+     */
+    private void addShape(String name, int t1, int x1, int y1, int w1, int h1, int r1, int g1,
+                          int b1) {
+      if (model.builderShapes.get(name).equals("rectangle")) {
+        model.addShape(new Rectangle(name, new Position(x1, y1), new Color(r1, g1, b1),
+                t1, Math.max(t1, 1000), w1, h1));
+      } else if (model.builderShapes.get(name).equals("ellipse")) {
+        model.addShape(new Oval(name, new Position(x1, y1), new Color(r1, g1, b1),
+                t1, Math.max(t1, 1000), w1, h1));
+      }
+    }
+
+    /**
+     * Builds the animations that a motion of a shape that has already been added stands for: a
+     * color change if the color changes, or else a scale if the size changes, followed by a move
+     * over the same interval.
+     *
+     * @return the animations of the motion, in the order they are added to the shape
+     */
+    private static IAnimation[] motionAnimations(String name, int t1, int x1, int y1, int w1,
+                                                 int h1, int r1, int g1, int b1, int t2, int x2,
+                                                 int y2, int w2, int h2, int r2, int g2, int b2) {
+      IAnimation change = null;
+      if (r1 != r2 || g1 != g2 || b1 != b2) {
+        change = new ColorChange(name, t1, t2, new Color(r1, g1, b1), new Color(r2, g2, b2));
+      } else if (w1 != w2 || h1 != h2) {
+        change = new Scale(name, t1, t2, w1, h1, (w2 - w1), (h2 - h1));
+      }
+      Move move = new Move(name, t1, t2, new Position(x1, y1), new Position(x2, y2));
+      return change == null ? new IAnimation[]{move} : new IAnimation[]{change, move};
+    }
+
+    /**
+     * The part of a document read from one chunk of a file. The animations of every motion are
+     * built as the chunk is read, as if its shape had already been added. The calls whose effect
+     * depends on the chunks before this one are kept as steps, in order, to be applied when the
+     * chunk is merged: the canvas, the shape declarations, and the first motion of each shape in
+     * the chunk, which adds the shape instead if no motion before it did.
+     */
+    public static final class Chunk implements AnimationBuilder<Void> {
+      private final HashMap<String, Track> tracks = new HashMap<>();
+      private final ArrayList<Step> steps = new ArrayList<>();
+      private IAnimation[] animations = new IAnimation[1024];
+      private int animationCount;
+      private int calls;
+
+      private Chunk() {
+      }
+
+      @Override
+      public Void build() {
+        return null;
+      }
+
+      @Override
+      public AnimationBuilder<Void> setBounds(int x, int y, int width, int height) {
+        steps.add(new Step(calls++, new int[]{x, y, width, height}, null, null, null));
+        return this;
+      }
+
+      @Override
+      public AnimationBuilder<Void> declareShape(String name, String type) {
+        steps.add(new Step(calls++, null, name, type, null));
+        return this;
+      }
+
+      @Override
+      public AnimationBuilder<Void> addMotion(String name, int t1, int x1, int y1, int w1, int h1,
+                                              int r1, int g1, int b1, int t2, int x2, int y2,
+                                              int w2, int h2, int r2, int g2, int b2) {
+        Track track = tracks.get(name);
+        if (track == null) {
+          track = new Track(name, new int[]{t1, x1, y1, w1, h1, r1, g1, b1});
+          tracks.put(name, track);
+          steps.add(new Step(calls, null, name, null, track));
+        }
+        if (track.failure == null) {
+          int from = animationCount;
+          try {
+            for (IAnimation animation : motionAnimations(name, t1, x1, y1, w1, h1, r1, g1, b1,
+                    t2, x2, y2, w2, h2, r2, g2, b2)) {
+              if (animationCount == animations.length) {
+                animations = Arrays.copyOf(animations, animationCount * 2);
+              }
+              animations[animationCount++] = animation;
+            }
+          } catch (RuntimeException ex) {
+            // no motion of the shape after a failed one is kept, except after the first, which
+            // may add the shape instead of building these animations
+            if (track.count == 0) {
+              track.firstFailure = ex;
+            } else {
+              track.failure = ex;
+            }
+          }
+          track.add(calls, from, animationCount);
+        }
+        calls++;
+        return this;
+      }
+    }
+
+    /**
+     * A call of a chunk to be applied in file order when the chunk is merged: the canvas, a shape
+     * declaration or the first motion of a shape in the chunk.
+     */
+    private static final class Step {
+      private final int call;
+      private final int[] bounds;
+      private final String name;
+      private final String type;
+      private final Track track;
+
+      private Step(int call, int[] bounds, String name, String type, Track track) {
+        this.call = call;
+        this.bounds = bounds;
+        this.name = name;
+        this.type = type;
+        this.track = track;
+      }
+    }
+
+    /**
+     * The motions of one shape in a chunk, each as the call it was read in and the range of the
+     * animations of the chunk it was built into.
+     */
+    private static final class Track {
+      private final String name;
+      private final int[] first;
+      private int[] motions;
+      private int count;
+      private RuntimeException firstFailure;
+      private RuntimeException failure;
+      private int chunk;
+      private boolean created;
+
+      private Track(String name, int[] first) {
+        this.name = name;
+        this.first = first;
+        this.motions = new int[3 * 4];
+      }
+
+      private void add(int call, int from, int to) {
+        if (3 * count == motions.length) {
+          motions = Arrays.copyOf(motions, motions.length * 2);
+        }
+        motions[3 * count] = call;
+        motions[3 * count + 1] = from;
+        motions[3 * count + 2] = to;
+        count++;
+      }
+    }
+
+    /**
+     * The earliest error, in file order, raised while merging chunks.
+     */
+    private static final class Failure {
+      private long position = Long.MAX_VALUE;
+      private RuntimeException error;
+
+      private void offer(int chunk, int call, RuntimeException error) {
+        offer(((long) chunk << 32) | call, error);
+      }
+
+      private void offer(Failure other) {
+        offer(other.position, other.error);
+      }
+
+      private void offer(long position, RuntimeException error) {
+        if (error != null && position < this.position) {
+          this.position = position;
+          this.error = error;
+        }
       }
-      return this;
     }
   }
 
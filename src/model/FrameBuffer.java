@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+
+import model.shapes.ShapeTracks;
+
+/**
+ * This class represents the state of every shape of a model at one tick, stored as parallel
+ * primitive arrays indexed by the position of the shape in {@link IAnimationModel#getModelShapes}:
+ * one array for each of x, y, width, height, red, green and blue, the packed RGB color and whether
+ * the shape is visible. A frame buffer is meant to be reused from frame to frame; it also remembers
+ * which keyframe every shape was at in the previous frame, so that playing forward does not search
+ * the keyframes again.
+ *
+ * <p>
+ * A frame buffer also holds the list of active shapes, the shapes on screen at its tick in the
+ * order they are drawn. When a frame is evaluated from a {@link ShapeSchedule}, only the active
+ * shapes are evaluated and the entries of the other shapes are left as they were.
+ * </p>
+ */
+public class FrameBuffer {
+  final double[][] channels;
+  int[] rgb;
+  boolean[] visible;
+  final int[][] cursors;
+  int[] active;
+  int activeCount;
+  int size;
+  int tick;
+
+  /**
+   * Constructs an empty frame buffer.
+   */
+  public FrameBuffer() {
+    this.channels = new double[ShapeTracks.CHANNELS][0];
+    this.cursors = new int[PackedAnimationModel.GROUPS.length][0];
+    this.rgb = new int[0];
+    this.visible = new boolean[0];
+    this.active = new int[0];
+  }
+
+  /**
+   * Sets the number of shapes held by the frame buffer, growing its arrays if needed.
+   *
+   * @param size the number of shapes
+   */
+  public void resize(int size) {
+    if (size > this.rgb.length) {
+      int capacity = Math.max(size, this.rgb.length + (this.rgb.length >> 1));
+      for (int channel = 0; channel < ShapeTracks.CHANNELS; channel++) {
+        this.channels[channel] = Arrays.copyOf(this.channels[channel], capacity);
+      }
+      for (int group = 0; group < this.cursors.length; group++) {
+        this.cursors[group] = Arrays.copyOf(this.cursors[group], capacity);
+      }
+      this.rgb = Arrays.copyOf(this.rgb, capacity);
+      this.visible = Arrays.copyOf(this.visible, capacity);
+      this.active = Arrays.copyOf(this.active, capacity);
+    }
+    this.size = size;
+    this.activeCount = Math.min(this.activeCount, size);
+  }
+
+  /**
+   * Returns the number of shapes held by the frame buffer.
+   *
+   * @return the number of shapes
+   */
+  public int getSize() {
+    return this.size;
+  }
+
+  /**
+   * Returns the tick the frame buffer was last evaluated at.
+   *
+   * @return the tick
+   */
+  public int getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Returns the x coordinate of a shape.
+   *
+   * @param index the index of the shape
+   * @return the x coordinate
+   */
+  public double getX(int index) {
+    return this.channels[ShapeTracks.X][index];
+  }
+
+  /**
+   * Returns the y coordinate of a shape.
+   *
+   * @param index the index of the shape
+   * @return the y coordinate
+   */
+  public double getY(int index) {
+    return this.channels[ShapeTracks.Y][index];
+  }
+
+  /**
+   * Returns the width (rectangle) or xRadius (oval) of a shape.
+   *
+   * @param index the index of the shape
+   * @return the width or xRadius
+   */
+  public double getWidth(int index) {
+    return this.channels[ShapeTracks.WIDTH][index];
+  }
+
+  /**
+   * Returns the height (rectangle) or yRadius (oval) of a shape.
+   *
+   * @param index the index of the shape
+   * @return the height or yRadius
+   */
+  public double getHeight(int index) {
+    return this.channels[ShapeTracks.HEIGHT][index];
+  }
+
+  /**
+   * Returns one property of a shape.
+   *
+   * @param channel the property, one of the channel constants of {@link ShapeTracks}
+   * @param index   the index of the shape
+   * @return the value of the property
+   */
+  public double get(int channel, int index) {
+    return this.channels[channel][index];
+  }
+
+  /**
+   * Returns the color of a shape packed as 0xRRGGBB, each component truncated to an int.
+   *
+   * @param index the index of the shape
+   * @return the packed color
+   */
+  public int getRgb(int index) {
+    return this.rgb[index];
+  }
+
+  /**
+   * Returns whether a shape is on screen at the tick of the frame.
+   *
+   * @param index the index of the shape
+   * @return true if the shape is visible
+   */
+  public boolean isVisible(int index) {
+    return this.visible[index];
+  }
+
+  /**
+   * Returns the number of shapes on screen at the tick of the frame.
+   *
+   * @return the number of active shapes
+   */
+  public int getActiveCount() {
+    return this.activeCount;
+  }
+
+  /**
+   * Returns the index of an active shape.
+   *
+   * @param position the position in the active list, from 0 to the number of active shapes
+   * @return the index of the shape
+   */
+  public int getActive(int position) {
+    return this.active[position];
+  }
+
+  /**
+   * Sets the active list to the given shape indices.
+   *
+   * @param indices the indices of the active shapes, in drawing order
+   * @param count   the number of active shapes
+   */
+  void setActive(int[] indices, int count) {
+    System.arraycopy(indices, 0, this.active, 0, count);
+    this.activeCount = count;
+  }
+
+  /**
+   * Sets the active list to the visible shapes, after every shape has been evaluated.
+   */
+  void listVisible() {
+    int count = 0;
+    for (int i = 0; i < this.size; i++) {
+      if (this.visible[i]) {
+        this.active[count++] = i;
+      }
+    }
+    this.activeCount = count;
+  }
+
+  /**
+   * Packs the color channels of the shapes in the given range into their RGB values.
+   *
+   * @param from the index of the first shape
+   * @param to   the index after the last shape
+   */
+  void packColors(int from, int to) {
+    double[] red = this.channels[ShapeTracks.RED];
+    double[] green = this.channels[ShapeTracks.GREEN];
+    double[] blue = this.channels[ShapeTracks.BLUE];
+    for (int i = from; i < to; i++) {
+      this.rgb[i] = ((int) red[i] & 0xff) << 16 | ((int) green[i] & 0xff) << 8
+              | ((int) blue[i] & 0xff);
+    }
+  }
+}
@@ -35,6 +35,23 @@ public interface IAnimationModel {
    */
   void removeShape(IShape2D shape) throws IllegalArgumentException;
 
+  /**
+   * Returns the shape with the given name, looked up in constant time.
+   *
+   * @param name the name of the shape
+   * @return the shape with the given name
+   * @throws IllegalArgumentException if the model has no shape with the given name
+   */
+  IShape2D getShape(String name) throws IllegalArgumentException;
+
+  /**
+   * Checks whether the model has a shape with the given name, in constant time.
+   *
+   * @param name the name of the shape
+   * @return true if a shape with the given name has been added
+   */
+  boolean hasShape(String name);
+
   /**
    * This is the addAnimation method that adds an animation, of type IAnimation, to the model.
    *
@@ -59,10 +76,91 @@ public interface IAnimationModel {
   /**
    * Returns the end time of the animation, by checking for the last operation or shape exit times.
    *
-   * @return the end time of the animation
+   * @return the end time of the animation, or 0 if the model has no shapes
    */
   int getEndTime();
 
+  /**
+   * Sets the bounding box of the canvas the animation is drawn on.
+   *
+   * @param x      the leftmost x value
+   * @param y      the topmost y value
+   * @param width  the width of the canvas
+   * @param height the height of the canvas
+   */
+  void setCanvas(int x, int y, int width, int height);
+
+  /**
+   * Returns the leftmost x value of the canvas.
+   *
+   * @return the leftmost x value
+   */
+  int getCanvasX();
+
+  /**
+   * Returns the topmost y value of the canvas.
+   *
+   * @return the topmost y value
+   */
+  int getCanvasY();
+
+  /**
+   * Returns the width of the canvas.
+   *
+   * @return the width of the canvas
+   */
+  int getCanvasWidth();
+
+  /**
+   * Returns the height of the canvas.
+   *
+   * @return the height of the canvas
+   */
+  int getCanvasHeight();
+
+  /**
+   * Returns a count that goes up every time a shape or an animation is added to or removed from
+   * the model, or its canvas is set, so that views which keep data derived from the model can tell
+   * when that data is out of date.
+   *
+   * @return the number of changes made to the model
+   */
+  long getModificationCount();
+
+  /**
+   * Evaluates every shape of the model at a tick and writes the result into the frame buffer,
+   * which is resized to the number of shapes. Shape i of {@link #getModelShapes} ends up at index
+   * i of the frame buffer, and the visible shapes become its active list.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   */
+  void evaluateFrame(int tick, FrameBuffer frame);
+
+  /**
+   * Evaluates the shapes with an index in the given range at a tick and writes the result into
+   * the frame buffer, which must already hold at least {@code to} shapes. Disjoint ranges of the
+   * same frame buffer may be evaluated at the same time from different threads.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   * @param from  the index of the first shape to evaluate
+   * @param to    the index after the last shape to evaluate
+   */
+  void evaluateFrame(int tick, FrameBuffer frame, int from, int to);
+
+  /**
+   * Evaluates the shapes listed at the given positions of the active list of the frame buffer at
+   * a tick, and writes the result into the frame buffer. The active list is normally filled from a
+   * {@link ShapeSchedule} at the same tick. Disjoint ranges of the active list may be evaluated at
+   * the same time from different threads.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   * @param from  the first position in the active list to evaluate
+   * @param to    the position after the last one to evaluate
+   */
+  void evaluateActive(int tick, FrameBuffer frame, int from, int to);
 
 }
 
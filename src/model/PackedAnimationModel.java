@@ -0,0 +1,288 @@
+package model;
+
+import java.util.ArrayList;
+
+import model.animations.IAnimation;
+import model.shapes.IShape2D;
+import model.shapes.ShapeTracks;
+
+/**
+ * This class represents an animation model that, next to its shapes, keeps the keyframes of every
+ * shape packed into flat primitive arrays laid out by shape index: for each property one array of
+ * keyframe times and one of keyframe values, holding the keyframes of shape 0, then those of shape
+ * 1, and so on, with an array of offsets telling where the keyframes of each shape begin.
+ * Evaluating a frame is then a few tight loops over these arrays instead of a walk over the shape
+ * objects and their animations. Properties that always change together share their keyframe
+ * times: x and y are moved together, width and height are scaled together, and red, green and
+ * blue are changed together, so each group needs one keyframe lookup per shape.
+ *
+ * <p>
+ * The packed arrays are compiled from the keyframe tracks of the shapes the first time a frame is
+ * evaluated, and again after a shape or an animation has been added or removed through the model.
+ * </p>
+ */
+public class PackedAnimationModel extends AnimationModelImpl {
+  static final int[][] GROUPS = {{ShapeTracks.X, ShapeTracks.Y},
+      {ShapeTracks.WIDTH, ShapeTracks.HEIGHT},
+      {ShapeTracks.RED, ShapeTracks.GREEN, ShapeTracks.BLUE}};
+
+  private volatile Scene scene;
+
+  /**
+   * The keyframes of every shape of the model packed into flat arrays. Times and offsets are kept
+   * per group of properties, values per property.
+   */
+  private static final class Scene {
+    private final int count;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[][] offsets;
+    private final int[][] times;
+    private final double[][] values;
+
+    private Scene(ArrayList<IShape2D> shapes) {
+      this.count = shapes.size();
+      this.starts = new int[count];
+      this.ends = new int[count];
+      this.offsets = new int[GROUPS.length][count + 1];
+      this.times = new int[GROUPS.length][];
+      this.values = new double[ShapeTracks.CHANNELS][];
+
+      ShapeTracks[] tracks = new ShapeTracks[count];
+      for (int i = 0; i < count; i++) {
+        tracks[i] = shapes.get(i).getTracks();
+        this.starts[i] = shapes.get(i).getStartTime();
+        this.ends[i] = ShapeSchedule.disappearTime(shapes.get(i));
+        for (int group = 0; group < GROUPS.length; group++) {
+          this.offsets[group][i + 1] = this.offsets[group][i]
+                  + tracks[i].getKeyCount(GROUPS[group][0]);
+        }
+      }
+      for (int group = 0; group < GROUPS.length; group++) {
+        int[] keyTimes = new int[this.offsets[group][count]];
+        for (int channel : GROUPS[group]) {
+          this.values[channel] = new double[keyTimes.length];
+        }
+        for (int i = 0; i < count; i++) {
+          int at = this.offsets[group][i];
+          int keys = tracks[i].getKeyCount(GROUPS[group][0]);
+          for (int key = 0; key < keys; key++) {
+            keyTimes[at + key] = tracks[i].getKeyTime(GROUPS[group][0], key);
+            for (int channel : GROUPS[group]) {
+              this.values[channel][at + key] = tracks[i].getKeyValue(channel, key);
+            }
+          }
+        }
+        this.times[group] = keyTimes;
+      }
+    }
+  }
+
+  /**
+   * This is the addShape method that adds a shape, of type IShape2D, to the model.
+   *
+   * @param shape - shape to be added to the model.
+   */
+  @Override
+  public void addShape(IShape2D shape) {
+    super.addShape(shape);
+    this.scene = null;
+  }
+
+  /**
+   * This is the removeShape method that removes a shape, of type IShape2D, from the model.
+   *
+   * @param shape - shape to be removed from the model
+   * @throws IllegalArgumentException - when the given shape could not be found/is invalid
+   */
+  @Override
+  public void removeShape(IShape2D shape) throws IllegalArgumentException {
+    super.removeShape(shape);
+    this.scene = null;
+  }
+
+  /**
+   * This is the addAnimation method that adds an animation, of type IAnimation, to the model.
+   *
+   * @param animation - animation that needs to be added to the model
+   */
+  @Override
+  public void addAnimation(IAnimation animation) {
+    super.addAnimation(animation);
+    this.scene = null;
+  }
+
+  /**
+   * Adds animations that have already been added to the timelines of their shapes to the model.
+   *
+   * @param animations the animations, in the order they were read
+   * @param count      the number of entries of the array to add
+   */
+  @Override
+  void addAnimated(IAnimation[] animations, int count) {
+    super.addAnimated(animations, count);
+    this.scene = null;
+  }
+
+  /**
+   * Evaluates the shapes with an index in the given range at a tick from the packed keyframe
+   * arrays, and writes the result into the frame buffer.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   * @param from  the index of the first shape to evaluate
+   * @param to    the index after the last shape to evaluate
+   */
+  @Override
+  public void evaluateFrame(int tick, FrameBuffer frame, int from, int to) {
+    Scene packed = scene();
+    if (to > packed.count) {
+      throw new IllegalArgumentException("Shape index out of range: " + to);
+    }
+    for (int group = 0; group < GROUPS.length; group++) {
+      int[] channels = GROUPS[group];
+      sample(packed, group, frame.cursors[group], frame.channels[channels[0]],
+              packed.values[channels[0]], frame.channels[channels[1]], packed.values[channels[1]],
+              channels.length > 2 ? frame.channels[channels[2]] : null,
+              channels.length > 2 ? packed.values[channels[2]] : null, tick, null, from, to);
+    }
+    int[] starts = packed.starts;
+    int[] ends = packed.ends;
+    boolean[] visible = frame.visible;
+    for (int i = from; i < to; i++) {
+      visible[i] = starts[i] <= tick && tick < ends[i];
+    }
+    frame.packColors(from, to);
+    frame.tick = tick;
+  }
+
+  /**
+   * Evaluates the shapes listed at the given positions of the active list of the frame buffer at
+   * a tick from the packed keyframe arrays, and writes the result into the frame buffer.
+   *
+   * @param tick  the tick to evaluate at
+   * @param frame the frame buffer that receives the state of the shapes
+   * @param from  the first position in the active list to evaluate
+   * @param to    the position after the last one to evaluate
+   */
+  @Override
+  public void evaluateActive(int tick, FrameBuffer frame, int from, int to) {
+    Scene packed = scene();
+    if (frame.size > packed.count) {
+      throw new IllegalArgumentException("Shape index out of range: " + frame.size);
+    }
+    int[] active = frame.active;
+    for (int group = 0; group < GROUPS.length; group++) {
+      int[] channels = GROUPS[group];
+      sample(packed, group, frame.cursors[group], frame.channels[channels[0]],
+              packed.values[channels[0]], frame.channels[channels[1]], packed.values[channels[1]],
+              channels.length > 2 ? frame.channels[channels[2]] : null,
+              channels.length > 2 ? packed.values[channels[2]] : null, tick, active, from, to);
+    }
+    int[] starts = packed.starts;
+    int[] ends = packed.ends;
+    boolean[] visible = frame.visible;
+    for (int position = from; position < to; position++) {
+      int i = active[position];
+      visible[i] = starts[i] <= tick && tick < ends[i];
+      frame.packColors(i, i + 1);
+    }
+    frame.tick = tick;
+  }
+
+  /**
+   * Returns the packed keyframes, compiling them if the model changed since they were last
+   * compiled.
+   */
+  private Scene scene() {
+    Scene current = this.scene;
+    if (current == null) {
+      synchronized (this) {
+        current = this.scene;
+        if (current == null) {
+          current = new Scene(getModelShapes());
+          this.scene = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Samples one group of two or three properties of the shapes in the given range, or of the shapes
+   * listed in that range of the indices if there are any. The cursor of a shape is the keyframe it
+   * was at in the previous frame; it is kept if the tick is still in the same segment, moved one
+   * keyframe on if the tick is in the next one, and otherwise found again by binary search.
+   */
+  private static void sample(Scene packed, int group, int[] cursors, double[] out0,
+                             double[] values0, double[] out1, double[] values1, double[] out2,
+                             double[] values2, int tick, int[] indices, int from, int to) {
+    int[] offsets = packed.offsets[group];
+    int[] times = packed.times[group];
+    for (int position = from; position < to; position++) {
+      int i = indices == null ? position : indices[position];
+      int first = offsets[i];
+      int last = offsets[i + 1] - 1;
+      int key = cursors[i];
+      if (key < first || key > last || (key > first && times[key] > tick)
+              || (key < last && times[key + 1] <= tick)) {
+        if (key >= first && key < last && times[key + 1] <= tick
+                && (key + 1 == last || times[key + 2] > tick)) {
+          key++;
+        } else {
+          key = search(times, first, last, tick);
+        }
+        cursors[i] = key;
+      }
+      if (key == last || times[key] > tick) {
+        out0[i] = values0[key];
+        out1[i] = values1[key];
+        if (out2 != null) {
+          out2[i] = values2[key];
+        }
+      } else {
+        int startTime = times[key];
+        int endTime = times[key + 1];
+        double before = (double) (endTime - tick) / (endTime - startTime);
+        double after = (double) (tick - startTime) / (endTime - startTime);
+        out0[i] = values0[key] * before + values0[key + 1] * after;
+        out1[i] = values1[key] * before + values1[key + 1] * after;
+        if (out2 != null) {
+          out2[i] = values2[key] * before + values2[key + 1] * after;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the last keyframe in the range at or before the tick, or the first keyframe of the
+   * range if they are all after it.
+   */
+  private static int search(int[] times, int first, int last, int tick) {
+    int low = first;
+    int high = last + 1;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (times[mid] <= tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return Math.max(first, low - 1);
+  }
+
+  /**
+   * This builder class builds a {@link PackedAnimationModel} in the same way as the builder of
+   * {@link AnimationModelImpl}.
+   */
+  public static class Builder extends AnimationModelImpl.Builder {
+
+    /**
+     * Constructs a builder for a packed animation model.
+     */
+    public Builder() {
+      this.model = new PackedAnimationModel();
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.shapes.IShape2D;
+
+/**
+ * This class represents the times at which the shapes of a model are on screen, and the set of
+ * shapes that are on screen at the current tick. A shape appears at its start time and disappears
+ * after the end of its last animation; a shape without animations never disappears.
+ *
+ * <p>
+ * The appear and disappear times are kept as two event lists sorted by time. The active set is
+ * moved from one tick to a later one by applying only the events in between, so playing forward
+ * costs time in proportion to the shapes that appear or disappear plus the shapes on screen, not to
+ * all shapes of the model. Moving back to an earlier tick undoes the events in between in the same
+ * way. The active shapes are listed in increasing index, which is the order they are drawn in.
+ * </p>
+ */
+public class ShapeSchedule {
+  private final int[] appearTimes;
+  private final int[] disappearTimes;
+  private final int[] appearOrder;
+  private final int[] disappearOrder;
+  private final boolean[] live;
+  private int[] active;
+  private int activeCount;
+  private int[] spare;
+  private int[] changed;
+  private int nextAppear;
+  private int nextDisappear;
+  private int tick;
+
+  /**
+   * Constructs the schedule of the given shapes, with no tick reached yet. The shapes and their
+   * animations must not change while the schedule is used.
+   *
+   * @param shapes the shapes, in the order they are drawn
+   */
+  public ShapeSchedule(List<IShape2D> shapes) {
+    int count = shapes.size();
+    this.appearTimes = new int[count];
+    this.disappearTimes = new int[count];
+    for (int i = 0; i < count; i++) {
+      IShape2D shape = shapes.get(i);
+      this.appearTimes[i] = shape.getStartTime();
+      this.disappearTimes[i] = disappearTime(shape);
+    }
+    this.appearOrder = sortByTime(this.appearTimes);
+    this.disappearOrder = sortByTime(this.disappearTimes);
+    this.live = new boolean[count];
+    this.active = new int[16];
+    this.spare = new int[16];
+    this.changed = new int[16];
+    this.tick = Integer.MIN_VALUE;
+  }
+
+  /**
+   * Returns the first tick at which a shape is no longer on screen: the tick after the end of its
+   * last animation, or never if it has no animations. A shape is on screen at least at its start
+   * time.
+   *
+   * @param shape the shape
+   * @return the tick at which the shape disappears, or {@link Integer#MAX_VALUE}
+   */
+  public static int disappearTime(IShape2D shape) {
+    int lastEnd = shape.getTimeline().getMaxEndTime();
+    if (lastEnd < 0) {
+      return Integer.MAX_VALUE;
+    }
+    return Math.max(lastEnd, shape.getStartTime()) + 1;
+  }
+
+  /**
+   * Returns the number of shapes in the schedule.
+   *
+   * @return the number of shapes
+   */
+  public int getShapeCount() {
+    return this.appearTimes.length;
+  }
+
+  /**
+   * Returns the tick at which a shape appears.
+   *
+   * @param index the index of the shape
+   * @return the start time of the shape
+   */
+  public int getAppearTime(int index) {
+    return this.appearTimes[index];
+  }
+
+  /**
+   * Returns the first tick at which a shape is no longer on screen.
+   *
+   * @param index the index of the shape
+   * @return the tick at which the shape disappears, or {@link Integer#MAX_VALUE}
+   */
+  public int getDisappearTime(int index) {
+    return this.disappearTimes[index];
+  }
+
+  /**
+   * Moves the active set to the given tick, applying the events between the current tick and the
+   * given one, or undoing them if the given tick is earlier.
+   *
+   * @param tick the tick
+   */
+  public void advanceTo(int tick) {
+    int changedCount = 0;
+    if (tick < this.tick) {
+      // undo the events after the tick, latest first
+      while (this.nextDisappear > 0
+              && this.disappearTimes[this.disappearOrder[this.nextDisappear - 1]] > tick) {
+        int index = this.disappearOrder[--this.nextDisappear];
+        this.live[index] = true;
+        changedCount = addChanged(changedCount, index);
+      }
+      while (this.nextAppear > 0
+              && this.appearTimes[this.appearOrder[this.nextAppear - 1]] > tick) {
+        int index = this.appearOrder[--this.nextAppear];
+        this.live[index] = false;
+        changedCount = addChanged(changedCount, index);
+      }
+    }
+    this.tick = tick;
+
+    while (this.nextAppear < this.appearOrder.length
+            && this.appearTimes[this.appearOrder[this.nextAppear]] <= tick) {
+      int index = this.appearOrder[this.nextAppear++];
+      this.live[index] = true;
+      changedCount = addChanged(changedCount, index);
+    }
+    while (this.nextDisappear < this.disappearOrder.length
+            && this.disappearTimes[this.disappearOrder[this.nextDisappear]] <= tick) {
+      int index = this.disappearOrder[this.nextDisappear++];
+      this.live[index] = false;
+      changedCount = addChanged(changedCount, index);
+    }
+    if (changedCount > 0) {
+      merge(changedCount);
+    }
+  }
+
+  /**
+   * Returns the tick the active set was last moved to.
+   *
+   * @return the tick
+   */
+  public int getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Returns the number of shapes on screen at the current tick.
+   *
+   * @return the number of active shapes
+   */
+  public int getActiveCount() {
+    return this.activeCount;
+  }
+
+  /**
+   * Returns the index of an active shape.
+   *
+   * @param position the position in the active set, from 0 to the number of active shapes
+   * @return the index of the shape in the model
+   */
+  public int getActive(int position) {
+    return this.active[position];
+  }
+
+  /**
+   * Copies the active set into the active list of a frame buffer, which is resized to the number
+   * of shapes in the schedule.
+   *
+   * @param frame the frame buffer
+   */
+  public void copyActiveTo(FrameBuffer frame) {
+    frame.resize(this.appearTimes.length);
+    frame.setActive(this.active, this.activeCount);
+  }
+
+  private int addChanged(int changedCount, int index) {
+    if (changedCount == this.changed.length) {
+      this.changed = Arrays.copyOf(this.changed, 2 * changedCount);
+    }
+    this.changed[changedCount] = index;
+    return changedCount + 1;
+  }
+
+  /**
+   * Rebuilds the active list in index order from the shapes in it and the shapes that changed, in
+   * one pass over both, keeping those that are live.
+   */
+  private void merge(int changedCount) {
+    Arrays.sort(this.changed, 0, changedCount);
+    if (this.spare.length < this.activeCount + changedCount) {
+      this.spare = new int[Math.max(this.activeCount + changedCount, 2 * this.spare.length)];
+    }
+    int[] merged = this.spare;
+    int count = 0;
+    int a = 0;
+    int c = 0;
+    int previous = -1;
+    while (a < this.activeCount || c < changedCount) {
+      int index;
+      if (c == changedCount || (a < this.activeCount && this.active[a] <= this.changed[c])) {
+        index = this.active[a++];
+      } else {
+        index = this.changed[c++];
+      }
+      if (index != previous && this.live[index]) {
+        merged[count++] = index;
+      }
+      previous = index;
+    }
+    this.spare = this.active;
+    this.active = merged;
+    this.activeCount = count;
+  }
+
+  /**
+   * Returns the indices of the given times sorted by time, then by index.
+   */
+  private static int[] sortByTime(int[] times) {
+    long[] keys = new long[times.length];
+    for (int i = 0; i < times.length; i++) {
+      keys[i] = (long) times[i] << 32 | i;
+    }
+    Arrays.sort(keys);
+    int[] order = new int[times.length];
+    for (int i = 0; i < times.length; i++) {
+      order[i] = (int) keys[i];
+    }
+    return order;
+  }
+}
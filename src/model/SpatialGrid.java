@@ -0,0 +1,345 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.shapes.IShape2D;
+import model.shapes.ShapeTracks;
+
+/**
+ * This class represents a uniform grid over the canvas of a model that indexes the shapes on
+ * screen by where they are, so that the shapes inside a viewport can be found without evaluating
+ * the others. Every shape is entered in the cells covered by its bounding box over the stretch of
+ * time until its next keyframe: between keyframes all of its properties move in straight lines, so
+ * the box is spanned by the box at the start and the box at the end of that stretch. Shapes that
+ * lie outside the canvas are kept in the cells at its border, and shapes that would cover too many
+ * cells are kept in a separate list that every query returns.
+ *
+ * <p>
+ * The grid is kept up to date incrementally: each shape has one pending event, the tick at which
+ * it appears, reaches its next keyframe or disappears, and moving to a later tick only updates the
+ * shapes whose event has come. Moving back to an earlier tick rebuilds the grid. Cells forget a
+ * shape lazily: an entry is only valid while it carries the latest version of its shape, and stale
+ * entries are dropped when a cell is read or fills up.
+ * </p>
+ */
+public class SpatialGrid {
+  private static final int MAX_CELLS_PER_AXIS = 64;
+  private static final int MIN_CELL_SIZE = 16;
+  private static final int MAX_CELLS_PER_SHAPE = 64;
+  private static final byte PENDING = 0;
+  private static final byte CELLS = 1;
+  private static final byte LARGE = 2;
+  private static final byte GONE = 3;
+
+  private final List<IShape2D> shapes;
+  private final ShapeSchedule schedule;
+  private final int originX;
+  private final int originY;
+  private final int cellWidth;
+  private final int cellHeight;
+  private final int columns;
+  private final int rows;
+  private final long[][] cells;
+  private final int[] cellSizes;
+  private long[] large;
+  private int largeSize;
+
+  private final byte[] states;
+  private final int[] versions;
+  private final int[] firstColumn;
+  private final int[] firstRow;
+  private final int[] lastColumn;
+  private final int[] lastRow;
+  private final int[] stamps;
+  private int stamp;
+  private long[] events;
+  private int eventCount;
+  private int tick;
+  private boolean built;
+  private int[] found;
+
+  /**
+   * Constructs a grid over the given area for the shapes of a schedule. The grid is built the first
+   * time it is moved to a tick.
+   *
+   * @param shapes   the shapes, in the order they are drawn
+   * @param schedule the schedule of the same shapes
+   * @param x        the left edge of the area, normally the canvas
+   * @param y        the top edge of the area
+   * @param width    the width of the area
+   * @param height   the height of the area
+   */
+  public SpatialGrid(List<IShape2D> shapes, ShapeSchedule schedule, int x, int y, int width,
+                     int height) {
+    this.shapes = shapes;
+    this.schedule = schedule;
+    this.originX = x;
+    this.originY = y;
+    this.cellWidth = Math.max(MIN_CELL_SIZE,
+            (Math.max(1, width) + MAX_CELLS_PER_AXIS - 1) / MAX_CELLS_PER_AXIS);
+    this.cellHeight = Math.max(MIN_CELL_SIZE,
+            (Math.max(1, height) + MAX_CELLS_PER_AXIS - 1) / MAX_CELLS_PER_AXIS);
+    this.columns = (Math.max(1, width) + this.cellWidth - 1) / this.cellWidth;
+    this.rows = (Math.max(1, height) + this.cellHeight - 1) / this.cellHeight;
+    this.cells = new long[this.columns * this.rows][];
+    this.cellSizes = new int[this.cells.length];
+    this.large = new long[16];
+
+    int count = schedule.getShapeCount();
+    this.states = new byte[count];
+    this.versions = new int[count];
+    this.firstColumn = new int[count];
+    this.firstRow = new int[count];
+    this.lastColumn = new int[count];
+    this.lastRow = new int[count];
+    this.stamps = new int[count];
+    this.events = new long[Math.max(16, count)];
+    this.found = new int[16];
+  }
+
+  /**
+   * Moves the grid to the given tick, updating only the shapes whose bounding box may have changed.
+   *
+   * @param tick the tick
+   */
+  public void advanceTo(int tick) {
+    if (!this.built || tick < this.tick) {
+      rebuild();
+    }
+    this.tick = tick;
+    while (this.eventCount > 0 && (int) (this.events[0] >> 32) <= tick) {
+      int index = (int) this.events[0];
+      popEvent();
+      update(index, tick);
+    }
+  }
+
+  /**
+   * Forgets the contents of the grid, so that it is rebuilt the next time it is moved to a tick.
+   * A grid that is not queried for a while can be dropped this way instead of being kept up to
+   * date.
+   */
+  public void invalidate() {
+    this.built = false;
+  }
+
+  /**
+   * Sets the active list of a frame buffer to the shapes on screen whose bounding box may overlap
+   * the given viewport, in drawing order. The list may hold a few shapes just outside the viewport
+   * but never misses one inside it. The frame buffer is resized to the number of shapes.
+   *
+   * @param frame  the frame buffer
+   * @param x      the left edge of the viewport
+   * @param y      the top edge of the viewport
+   * @param width  the width of the viewport
+   * @param height the height of the viewport
+   */
+  public void copyVisibleTo(FrameBuffer frame, int x, int y, int width, int height) {
+    if (++this.stamp == 0) {
+      Arrays.fill(this.stamps, 0);
+      this.stamp = 1;
+    }
+    int count = 0;
+    int column0 = column(x);
+    int column1 = column(x + width);
+    int row0 = row(y);
+    int row1 = row(y + height);
+    for (int row = row0; row <= row1; row++) {
+      for (int column = column0; column <= column1; column++) {
+        int cell = row * this.columns + column;
+        compact(cell);
+        long[] entries = this.cells[cell];
+        for (int k = 0; k < this.cellSizes[cell]; k++) {
+          count = collect((int) entries[k], count);
+        }
+      }
+    }
+    this.largeSize = compact(this.large, this.largeSize, -1);
+    for (int k = 0; k < this.largeSize; k++) {
+      count = collect((int) this.large[k], count);
+    }
+    Arrays.sort(this.found, 0, count);
+    frame.resize(this.states.length);
+    frame.setActive(this.found, count);
+  }
+
+  private int collect(int index, int count) {
+    if (this.stamps[index] == this.stamp) {
+      return count;
+    }
+    this.stamps[index] = this.stamp;
+    if (count == this.found.length) {
+      this.found = Arrays.copyOf(this.found, 2 * count);
+    }
+    this.found[count] = index;
+    return count + 1;
+  }
+
+  /**
+   * Empties the grid and schedules every shape to be entered when it appears.
+   */
+  private void rebuild() {
+    for (int cell = 0; cell < this.cells.length; cell++) {
+      this.cellSizes[cell] = 0;
+    }
+    this.largeSize = 0;
+    this.eventCount = 0;
+    for (int i = 0; i < this.states.length; i++) {
+      this.states[i] = PENDING;
+      this.versions[i]++;
+      pushEvent(this.schedule.getAppearTime(i), i);
+    }
+    this.built = true;
+  }
+
+  /**
+   * Enters a shape whose event has come in the cells of its bounding box until its next keyframe,
+   * or takes it out of the grid if it has disappeared. A shape that stays in the same cells, or in
+   * the list of large shapes, keeps its entries.
+   */
+  private void update(int index, int tick) {
+    int disappear = this.schedule.getDisappearTime(index);
+    if (tick >= disappear) {
+      this.versions[index]++;
+      this.states[index] = GONE;
+      return;
+    }
+    ShapeTracks tracks = this.shapes.get(index).getTracks();
+    int next = Math.min(tracks.getNextKeyTime(tick), disappear);
+    int last = next == Integer.MAX_VALUE ? tick : Math.max(tick, next - 1);
+    double x0 = tracks.sample(ShapeTracks.X, tick);
+    double y0 = tracks.sample(ShapeTracks.Y, tick);
+    double x1 = tracks.sample(ShapeTracks.X, last);
+    double y1 = tracks.sample(ShapeTracks.Y, last);
+    double right0 = x0 + tracks.sample(ShapeTracks.WIDTH, tick);
+    double bottom0 = y0 + tracks.sample(ShapeTracks.HEIGHT, tick);
+    double right1 = x1 + tracks.sample(ShapeTracks.WIDTH, last);
+    double bottom1 = y1 + tracks.sample(ShapeTracks.HEIGHT, last);
+    if (next != Integer.MAX_VALUE) {
+      pushEvent(next, index);
+    }
+
+    int column0 = column(Math.min(Math.min(x0, x1), Math.min(right0, right1)) - 1);
+    int column1 = column(Math.max(Math.max(x0, x1), Math.max(right0, right1)) + 1);
+    int row0 = row(Math.min(Math.min(y0, y1), Math.min(bottom0, bottom1)) - 1);
+    int row1 = row(Math.max(Math.max(y0, y1), Math.max(bottom0, bottom1)) + 1);
+    boolean isLarge = (column1 - column0 + 1) * (row1 - row0 + 1) > MAX_CELLS_PER_SHAPE;
+    if (isLarge ? this.states[index] == LARGE : this.states[index] == CELLS
+            && this.firstColumn[index] == column0 && this.lastColumn[index] == column1
+            && this.firstRow[index] == row0 && this.lastRow[index] == row1) {
+      // its entries are still valid
+      return;
+    }
+    this.firstColumn[index] = column0;
+    this.lastColumn[index] = column1;
+    this.firstRow[index] = row0;
+    this.lastRow[index] = row1;
+    long entry = (long) ++this.versions[index] << 32 | index;
+    if (isLarge) {
+      this.states[index] = LARGE;
+      if (this.largeSize == this.large.length) {
+        this.largeSize = compact(this.large, this.largeSize, -1);
+        if (this.largeSize == this.large.length) {
+          this.large = Arrays.copyOf(this.large, 2 * this.largeSize);
+        }
+      }
+      this.large[this.largeSize++] = entry;
+    } else {
+      this.states[index] = CELLS;
+      for (int row = row0; row <= row1; row++) {
+        for (int column = column0; column <= column1; column++) {
+          add(row * this.columns + column, entry);
+        }
+      }
+    }
+  }
+
+  private void add(int cell, long entry) {
+    long[] entries = this.cells[cell];
+    if (entries == null) {
+      entries = new long[8];
+      this.cells[cell] = entries;
+    } else if (this.cellSizes[cell] == entries.length) {
+      compact(cell);
+      if (this.cellSizes[cell] == entries.length) {
+        entries = Arrays.copyOf(entries, 2 * entries.length);
+        this.cells[cell] = entries;
+      }
+    }
+    entries[this.cellSizes[cell]++] = entry;
+  }
+
+  private void compact(int cell) {
+    if (this.cells[cell] != null) {
+      this.cellSizes[cell] = compact(this.cells[cell], this.cellSizes[cell], cell);
+    }
+  }
+
+  /**
+   * Drops the entries of a cell, or of the list of large shapes if the cell is negative, that no
+   * longer carry the latest version of their shape.
+   */
+  private int compact(long[] entries, int size, int cell) {
+    byte state = cell < 0 ? LARGE : CELLS;
+    int kept = 0;
+    for (int k = 0; k < size; k++) {
+      int index = (int) entries[k];
+      if (this.states[index] == state && this.versions[index] == (int) (entries[k] >>> 32)) {
+        entries[kept++] = entries[k];
+      }
+    }
+    return kept;
+  }
+
+  private int column(double x) {
+    double column = Math.floor((x - this.originX) / this.cellWidth);
+    return (int) Math.max(0, Math.min(this.columns - 1, column));
+  }
+
+  private int row(double y) {
+    double row = Math.floor((y - this.originY) / this.cellHeight);
+    return (int) Math.max(0, Math.min(this.rows - 1, row));
+  }
+
+  /**
+   * Adds an event to the binary min-heap of events, ordered by tick and then by shape index.
+   */
+  private void pushEvent(int tick, int index) {
+    if (this.eventCount == this.events.length) {
+      this.events = Arrays.copyOf(this.events, 2 * this.eventCount);
+    }
+    long event = (long) tick << 32 | index;
+    int at = this.eventCount++;
+    while (at > 0) {
+      int parent = (at - 1) >>> 1;
+      if (this.events[parent] <= event) {
+        break;
+      }
+      this.events[at] = this.events[parent];
+      at = parent;
+    }
+    this.events[at] = event;
+  }
+
+  /**
+   * Removes the earliest event from the heap.
+   */
+  private void popEvent() {
+    long event = this.events[--this.eventCount];
+    int at = 0;
+    int half = this.eventCount >>> 1;
+    while (at < half) {
+      int child = 2 * at + 1;
+      if (child + 1 < this.eventCount && this.events[child + 1] < this.events[child]) {
+        child++;
+      }
+      if (event <= this.events[child]) {
+        break;
+      }
+      this.events[at] = this.events[child];
+      at = child;
+    }
+    this.events[at] = event;
+  }
+}
@@ -2,6 +2,7 @@ package model.animations;
 
 import java.util.ArrayList;
 
+import model.IAnimationModel;
 import model.shapes.IShape2D;
 import util.Color;
 import util.Position;
@@ -90,6 +91,20 @@ public abstract class AbstractAnimation implements IAnimation {
   }
 
 
+  /**
+   * This is the animationDescription method. It returns the current description of the animation.
+   *
+   * @param model - model that is passed through the method to return the string description
+   * @return - current description of the animation
+   * @throws IllegalArgumentException - if the animation occurs on an invalid shape.
+   */
+  @Override
+  public String animationDescription(IAnimationModel model) throws IllegalArgumentException {
+    StringBuilder out = new StringBuilder(96);
+    appendDescription(model, out);
+    return out.toString();
+  }
+
   /**
    * This is the animateShape class that adds an animation to a shape object.
    *
@@ -99,24 +114,8 @@ public abstract class AbstractAnimation implements IAnimation {
    */
   @Override
   public void animateShape(IShape2D shape) throws IllegalArgumentException {
-    ArrayList<IAnimation> animations = new ArrayList<>();
-
-    int i = 0;
-    while (i < shape.getAnimation().size()) {
-      switch (shape.getAnimation().get(i).getType()) {
-        case Scale:
-        case Move:
-        case Color:
-          animations.add(shape.getAnimation().get(i));
-          if (this.startTime > shape.getAnimation().get(i).getStartTime()
-                  && this.startTime < shape.getAnimation().get(i).getEndTime()) {
-            throw new IllegalArgumentException("Overlapping animations cannot be executed.");
-          }
-          break;
-        default:
-          return;
-      }
-      i++;
+    if (shape.getTimeline().overlaps(this.startTime)) {
+      throw new IllegalArgumentException("Overlapping animations cannot be executed.");
     }
 
 
@@ -127,7 +126,7 @@ public abstract class AbstractAnimation implements IAnimation {
 
 
     this.shapeAnimation.add(shape);
-    shape.getAnimation().add(this);
+    shape.getTimeline().add(this);
   }
 
 
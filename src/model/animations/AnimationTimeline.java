@@ -0,0 +1,169 @@
+package model.animations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class represents the animations of a single shape kept in order of their start time. Next
+ * to the list it keeps the start and end times in flat arrays, together with the running maximum of
+ * the end times, so that overlap checks and "how many animations have started by this tick" queries
+ * are a binary search instead of a scan over every animation of the shape.
+ */
+public class AnimationTimeline {
+  private final ArrayList<IAnimation> animations;
+  private int[] starts;
+  private int[] ends;
+  private int[] maxEnds;
+  private int count;
+  private int version;
+
+  /**
+   * Constructs an empty timeline.
+   */
+  public AnimationTimeline() {
+    this.animations = new ArrayList<>();
+    this.starts = new int[8];
+    this.ends = new int[8];
+    this.maxEnds = new int[8];
+  }
+
+  /**
+   * Returns the animations of the timeline ordered by start time. Animations with the same start
+   * time keep the order in which they were added. The list should only be read; animations are
+   * added through {@link #add}.
+   *
+   * @return the animations ordered by start time
+   */
+  public ArrayList<IAnimation> getAnimations() {
+    return this.animations;
+  }
+
+  /**
+   * Returns a counter that changes every time an animation is added to the timeline, so that data
+   * derived from the animations can tell whether it is out of date.
+   *
+   * @return the version of the timeline
+   */
+  public int getVersion() {
+    sync();
+    return this.version;
+  }
+
+  /**
+   * Adds an animation after every animation that starts at or before it.
+   *
+   * @param animation the animation to add
+   */
+  public void add(IAnimation animation) {
+    sync();
+    int index = countStartedBy(animation.getStartTime());
+    if (count == starts.length) {
+      starts = Arrays.copyOf(starts, count * 2);
+      ends = Arrays.copyOf(ends, count * 2);
+      maxEnds = Arrays.copyOf(maxEnds, count * 2);
+    }
+    System.arraycopy(starts, index, starts, index + 1, count - index);
+    System.arraycopy(ends, index, ends, index + 1, count - index);
+    starts[index] = animation.getStartTime();
+    ends[index] = animation.getEndTime();
+    animations.add(index, animation);
+    count++;
+    version++;
+    updateMaxEnds(index);
+  }
+
+  /**
+   * Checks whether any animation is running at the given time, that is starts strictly before and
+   * ends strictly after it.
+   *
+   * @param time the time to check
+   * @return true if an animation of the timeline overlaps the time
+   */
+  public boolean overlaps(int time) {
+    sync();
+    int before = lowerBound(time);
+    return before > 0 && maxEnds[before - 1] > time;
+  }
+
+  /**
+   * Returns the number of animations that start at or before the given tick. Since the animations
+   * are ordered by start time, these are the first animations of {@link #getAnimations}.
+   *
+   * @param tick the tick
+   * @return the number of animations that have started by the tick
+   */
+  public int countStartedBy(int tick) {
+    sync();
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] <= tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the latest end time of the animations, or -1 if the timeline is empty.
+   *
+   * @return the latest end time
+   */
+  public int getMaxEndTime() {
+    sync();
+    return count == 0 ? -1 : maxEnds[count - 1];
+  }
+
+  /**
+   * Returns the number of animations with a start time strictly before the given time.
+   */
+  private int lowerBound(int time) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Recomputes the running maximum of the end times from the given index on.
+   */
+  private void updateMaxEnds(int from) {
+    int max = from == 0 ? Integer.MIN_VALUE : maxEnds[from - 1];
+    for (int i = from; i < count; i++) {
+      max = Math.max(max, ends[i]);
+      maxEnds[i] = max;
+    }
+  }
+
+  /**
+   * Rebuilds the arrays if the list was changed without going through {@link #add}.
+   */
+  private void sync() {
+    if (animations.size() == count) {
+      return;
+    }
+    animations.sort(Comparator.comparingInt(IAnimation::getStartTime));
+    count = animations.size();
+    int capacity = Math.max(8, count);
+    starts = new int[capacity];
+    ends = new int[capacity];
+    maxEnds = new int[capacity];
+    for (int i = 0; i < count; i++) {
+      starts[i] = animations.get(i).getStartTime();
+      ends[i] = animations.get(i).getEndTime();
+    }
+    version++;
+    updateMaxEnds(0);
+  }
+}
@@ -38,22 +38,34 @@ public class ColorChange extends AbstractAnimation {
     return this.newColor;
   }
 
+  /**
+   * The getInitialColor method gets the color of the shape at the start of the animation.
+   *
+   * @return - the initial color of the shape.
+   */
+  public Color getInitialColor() {
+    return this.oldColor;
+  }
+
 
   /**
-   * This is the animationDescription method. It returns the current description of the animation.
+   * This is the appendDescription method. It appends the current description of the animation.
    *
-   * @param model - model that is passed through the method to return the string description
-   * @return - current description of the animation
+   * @param model - model that is passed through the method to get the description
+   * @param out   - the builder the description is appended to
    * @throws IllegalArgumentException - if color change animation type has not been used to animate
    *                                  the object
    */
   @Override
-  public String animationDescription(IAnimationModel model) throws IllegalArgumentException {
+  public void appendDescription(IAnimationModel model, StringBuilder out)
+          throws IllegalArgumentException {
     if (!this.shapeAnimation.isEmpty()) {
-      return String.format("Shape %s changes color from %s to %s from t=%d to t=%d\n",
-              this.shapeAnimation.get(0).getName(),
-              this.oldColor.getRGBString(),
-              this.newColor.getRGBString(), this.startTime, this.endTime);
+      out.append("Shape ").append(this.shapeAnimation.get(0).getName())
+              .append(" changes color from ");
+      this.oldColor.appendRGBString(out).append(" to ");
+      this.newColor.appendRGBString(out).append(" from t=").append(this.startTime)
+              .append(" to t=").append(this.endTime).append('\n');
+      return;
     }
     throw new IllegalArgumentException("Color Change animation type has not been used to animate "
             + "the object.");
@@ -30,6 +30,18 @@ public interface IAnimation {
 
   String animationDescription(IAnimationModel model) throws IllegalArgumentException;
 
+  /**
+   * This is the appendDescription method. It appends the same text as animationDescription to a
+   * builder, so that many descriptions can be written without creating a string for each.
+   *
+   * @param model - model that is passed through the method to get the description
+   * @param out   - the builder the description is appended to
+   * @throws IllegalArgumentException - if the animation occurs on an invalid shape, in which case
+   *                                  nothing is appended.
+   */
+  void appendDescription(IAnimationModel model, StringBuilder out)
+          throws IllegalArgumentException;
+
   /**
    * This is the getStartTime method. It gets the start time of the animation.
    *
@@ -30,26 +30,30 @@ public class Move extends AbstractAnimation {
   }
 
   /**
-   * This is the animationDescription method. It returns the current description of the animation.
+   * This is the appendDescription method. It appends the current description of the animation,
+   * which is empty if the shape does not change its position.
    *
-   * @param model - model that is passed through the method to return the string description
-   * @return - current description of the animation
+   * @param model - model that is passed through the method to get the description
+   * @param out   - the builder the description is appended to
    * @throws IllegalArgumentException - if move animation type has not been used to animate the
    *                                  object
    */
-  public String animationDescription(IAnimationModel model) throws IllegalArgumentException {
+  @Override
+  public void appendDescription(IAnimationModel model, StringBuilder out)
+          throws IllegalArgumentException {
     if (!this.shapeAnimation.isEmpty()) {
       if (this.oldPosition.getX() == this.finalPosition.getX()
               && this.oldPosition.getY() == this.finalPosition.getY()) {
-        return "";
+        return;
       }
-      return String.format("Shape %s moves from (%s,%s) to (%s,%s) from t=%d to t=%d\n",
-              this.shapeAnimation.get(0).getName(),
-              this.oldPosition.getX(),
-              this.oldPosition.getY(),
-              this.finalPosition.getX(),
-              this.finalPosition.getY(), this.startTime,
-              this.endTime);
+      out.append("Shape ").append(this.shapeAnimation.get(0).getName())
+              .append(" moves from (").append(this.oldPosition.getX())
+              .append(',').append(this.oldPosition.getY())
+              .append(") to (").append(this.finalPosition.getX())
+              .append(',').append(this.finalPosition.getY())
+              .append(") from t=").append(this.startTime)
+              .append(" to t=").append(this.endTime).append('\n');
+      return;
     }
     throw new IllegalArgumentException("Move animation type has not been used to animate the "
             + "object.");
@@ -64,4 +68,13 @@ public class Move extends AbstractAnimation {
     return this.finalPosition;
   }
 
+  /**
+   * A getter method for the initial position before the animation on a shape 2D object.
+   *
+   * @return initial position for the animation 2D shape object.
+   */
+  public Position getInitialPosition() {
+    return this.oldPosition;
+  }
+
 }
@@ -52,14 +52,34 @@ public class Scale extends AbstractAnimation {
   }
 
   /**
-   * This method is the animateShape method. It takes in a shape and stores the animations that
-   * happen on the shape.
+   * A getter method for the width/xRadius at the start of the animation.
+   *
+   * @return the initial width/xRadius
+   */
+  public double getInitialSizeArg1() {
+    return this.oldSizeArg1;
+  }
+
+  /**
+   * A getter method for the height/yRadius at the start of the animation.
+   *
+   * @return the initial height/yRadius
+   */
+  public double getInitialSizeArg2() {
+    return this.oldSizeArg2;
+  }
+
+  /**
+   * This is the appendDescription method. It appends the current description of the animation.
    *
    * @param model - animation model
-   * @throws IllegalArgumentException - if the animation parameters are invalid
+   * @param out   - the builder the description is appended to
+   * @throws IllegalArgumentException - if scale animation type has not been used to animate the
+   *                                  object or the new dimensions are not valid
    */
   @Override
-  public String animationDescription(IAnimationModel model) {
+  public void appendDescription(IAnimationModel model, StringBuilder out)
+          throws IllegalArgumentException {
     if (this.shapeAnimation.isEmpty()) {
       throw new IllegalArgumentException("Scale animation type has not been used to animate "
               + "the object.");
@@ -70,14 +90,13 @@ public class Scale extends AbstractAnimation {
     }
     double newWidth = this.shapeAnimation.get(0).getSizeArg1() + this.deltaX;
     double newHeight = this.shapeAnimation.get(0).getSizeArg2() + this.deltaY;
-    return (String.format("Shape %s scales from Width: %s,"
-                    + " Height: %s to Width: %s, Height: %s from t=%d to t=%d\n",
-            this.shapeAnimation.get(0).getName(),
-            oldSizeArg1,
-            oldSizeArg2,
-            newWidth, newHeight,
-            this.startTime,
-            this.endTime));
+    out.append("Shape ").append(this.shapeAnimation.get(0).getName())
+            .append(" scales from Width: ").append(oldSizeArg1)
+            .append(", Height: ").append(oldSizeArg2)
+            .append(" to Width: ").append(newWidth)
+            .append(", Height: ").append(newHeight)
+            .append(" from t=").append(this.startTime)
+            .append(" to t=").append(this.endTime).append('\n');
   }
 
 
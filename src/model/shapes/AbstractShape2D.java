@@ -3,6 +3,7 @@ package model.shapes;
 
 import java.util.ArrayList;
 
+import model.animations.AnimationTimeline;
 import model.animations.ColorChange;
 import model.animations.IAnimation;
 import model.animations.Move;
@@ -24,7 +25,9 @@ public abstract class AbstractShape2D implements IShape2D {
   protected double sizeArg1;
   protected double sizeArg2;
   protected ArrayList<IAnimation> animationList;
+  protected AnimationTimeline timeline;
   protected Shape2DType type;
+  private volatile ShapeTracks tracks;
 
   /**
    * This is a constructor that takes in a minimum corner coordinate, the dimensions and the RGB
@@ -48,7 +51,8 @@ public abstract class AbstractShape2D implements IShape2D {
         this.name = name;
         this.startTime = startTime;
         this.endTime = endTime;
-        this.animationList = new ArrayList<>();
+        this.timeline = new AnimationTimeline();
+        this.animationList = this.timeline.getAnimations();
         setPosition(position);
         setColor(color);
         setSizeArg1(sizeArg1);
@@ -124,6 +128,66 @@ public abstract class AbstractShape2D implements IShape2D {
     return this.animationList;
   }
 
+  /**
+   * The getTimeline method returns the animations on the shape ordered by their start time, indexed
+   * for overlap checks and for finding the animations active at a tick.
+   *
+   * @return - the timeline of animations on the shape.
+   */
+  @Override
+  public AnimationTimeline getTimeline() {
+    return this.timeline;
+  }
+
+  /**
+   * The getTracks method returns the animations on the shape compiled into keyframe tracks. The
+   * tracks are compiled on first use and again whenever the timeline or the shape has changed.
+   *
+   * @return - the keyframe tracks of the shape.
+   */
+  @Override
+  public ShapeTracks getTracks() {
+    ShapeTracks current = this.tracks;
+    if (current == null || current.getVersion() != this.timeline.getVersion()) {
+      synchronized (this) {
+        current = this.tracks;
+        if (current == null || current.getVersion() != this.timeline.getVersion()) {
+          current = new ShapeTracks(this);
+          this.tracks = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Evaluate the status of animation on a shape object at a particular tick value and write it
+   * into the given frame, by sampling the keyframe tracks of the shape. The shape is visible from
+   * its start time until the end of its last animation, or for good if it has no animations.
+   *
+   * @param tick  time duration
+   * @param frame the frame that receives the state of the shape object at the tick value
+   */
+  @Override
+  public void evaluateFrame(int tick, ShapeFrame frame) {
+    getTracks().evaluate(tick, frame);
+    int lastEnd = this.timeline.getMaxEndTime();
+    frame.visible = this.startTime <= tick
+            && (lastEnd < 0 || tick <= Math.max(lastEnd, this.startTime));
+  }
+
+  /**
+   * The getDescription method returns the description of the shape.
+   *
+   * @return a string description of the shape 2D object.
+   */
+  @Override
+  public String getDescription() {
+    StringBuilder out = new StringBuilder(80);
+    appendDescription(out);
+    return out.toString();
+  }
+
   /**
    * The getSizeArg1 method returns either the width (rectangle) or xRadius (oval).
    *
@@ -156,6 +220,7 @@ public abstract class AbstractShape2D implements IShape2D {
       throw new IllegalArgumentException("Size argument has to be positive");
     }
     this.sizeArg1 = updatedArg1;
+    this.tracks = null;
   }
 
   /**
@@ -170,6 +235,7 @@ public abstract class AbstractShape2D implements IShape2D {
       throw new IllegalArgumentException("Size argument has to be positive");
     }
     this.sizeArg2 = updatedArg2;
+    this.tracks = null;
   }
 
   /**
@@ -181,6 +247,7 @@ public abstract class AbstractShape2D implements IShape2D {
   public void move(Position updatedPos) {
     this.position.setX(updatedPos.getX());
     this.position.setY(updatedPos.getY());
+    this.tracks = null;
   }
 
   /**
@@ -288,6 +355,7 @@ public abstract class AbstractShape2D implements IShape2D {
   @Override
   public void setPosition(Position updatedPos) {
     this.position = updatedPos;
+    this.tracks = null;
   }
 
   /**
@@ -298,5 +366,6 @@ public abstract class AbstractShape2D implements IShape2D {
   @Override
   public void setColor(Color updatedColor) {
     this.color = updatedColor;
+    this.tracks = null;
   }
 }
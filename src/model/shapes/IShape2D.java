@@ -2,6 +2,7 @@ package model.shapes;
 
 import java.util.ArrayList;
 
+import model.animations.AnimationTimeline;
 import model.animations.ColorChange;
 import model.animations.IAnimation;
 import model.animations.Move;
@@ -82,6 +83,22 @@ public interface IShape2D {
    */
   ArrayList<IAnimation> getAnimation();
 
+  /**
+   * The getTimeline method returns the animations on the shape ordered by their start time, indexed
+   * for overlap checks and for finding the animations active at a tick.
+   *
+   * @return - the timeline of animations on the shape.
+   */
+  AnimationTimeline getTimeline();
+
+  /**
+   * The getTracks method returns the animations on the shape compiled into keyframe tracks, which
+   * give the position, size and color of the shape at any tick with one binary search per track.
+   *
+   * @return - the keyframe tracks of the shape.
+   */
+  ShapeTracks getTracks();
+
   /**
    * The getDescription method returns the description of the shape.
    *
@@ -89,6 +106,13 @@ public interface IShape2D {
    */
   String getDescription();
 
+  /**
+   * The appendDescription method appends the description of the shape to a builder.
+   *
+   * @param out - the builder the description is appended to.
+   */
+  void appendDescription(StringBuilder out);
+
   /**
    * The getSizeArg1 method returns either the width (rectangle) or xRadius (oval).
    *
@@ -128,6 +152,16 @@ public interface IShape2D {
    */
   IShape2D generateAnimatedShape(int tick);
 
+  /**
+   * Evaluate the status of animation on a shape object at a particular tick value and write it
+   * into the given frame, without creating a new shape. The state is sampled from the keyframe
+   * tracks returned by {@link #getTracks}.
+   *
+   * @param tick  time duration
+   * @param frame the frame that receives the state of the shape object at the tick value
+   */
+  void evaluateFrame(int tick, ShapeFrame frame);
+
   /**
    * This method moves the shape object to a new position with updated x and y values.
    *
@@ -0,0 +1,89 @@
+package model.shapes;
+
+/**
+ * This class represents the state of a shape at one tick: its position, size, color and whether it
+ * is visible. It is a mutable record meant to be reused, so that evaluating a shape for every frame
+ * does not allocate a new shape, position and color each time.
+ */
+public class ShapeFrame {
+  double x;
+  double y;
+  double width;
+  double height;
+  double red;
+  double green;
+  double blue;
+  boolean visible;
+
+  /**
+   * Returns the x coordinate of the shape.
+   *
+   * @return the x coordinate
+   */
+  public double getX() {
+    return this.x;
+  }
+
+  /**
+   * Returns the y coordinate of the shape.
+   *
+   * @return the y coordinate
+   */
+  public double getY() {
+    return this.y;
+  }
+
+  /**
+   * Returns the width (rectangle) or xRadius (oval) of the shape.
+   *
+   * @return the width or xRadius
+   */
+  public double getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Returns the height (rectangle) or yRadius (oval) of the shape.
+   *
+   * @return the height or yRadius
+   */
+  public double getHeight() {
+    return this.height;
+  }
+
+  /**
+   * Returns the red color value of the shape.
+   *
+   * @return the red value
+   */
+  public double getRed() {
+    return this.red;
+  }
+
+  /**
+   * Returns the green color value of the shape.
+   *
+   * @return the green value
+   */
+  public double getGreen() {
+    return this.green;
+  }
+
+  /**
+   * Returns the blue color value of the shape.
+   *
+   * @return the blue value
+   */
+  public double getBlue() {
+    return this.blue;
+  }
+
+  /**
+   * Returns whether the shape has appeared by the tick of this frame.
+   *
+   * @return true if the shape is visible
+   */
+  public boolean isVisible() {
+    return this.visible;
+  }
+}
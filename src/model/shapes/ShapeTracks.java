@@ -0,0 +1,241 @@
+package model.shapes;
+
+import java.util.Arrays;
+import java.util.List;
+
+import model.animations.ColorChange;
+import model.animations.IAnimation;
+import model.animations.Move;
+import model.animations.Scale;
+import util.Color;
+import util.Position;
+
+/**
+ * This class represents the animations of a shape compiled into keyframe tracks, one for every
+ * animated property: x, y, width, height, red, green and blue. Every track is a pair of flat arrays
+ * holding the keyframe times in increasing order and the value of the property at each of them.
+ * Sampling a track at a tick is a binary search for the keyframes around it followed by one linear
+ * interpolation, so the cost of evaluating a shape does not depend on how many animations it has
+ * or on which tick was evaluated before.
+ *
+ * <p>
+ * Each animation moves its properties in a straight line from their value when it starts to its
+ * target: the final position of a move, the new color of a color change, and the size plus the
+ * width and height change of a scale. Between animations a property keeps its value.
+ * </p>
+ */
+public class ShapeTracks {
+  public static final int X = 0;
+  public static final int Y = 1;
+  public static final int WIDTH = 2;
+  public static final int HEIGHT = 3;
+  public static final int RED = 4;
+  public static final int GREEN = 5;
+  public static final int BLUE = 6;
+  public static final int CHANNELS = 7;
+
+  private final int[][] times;
+  private final double[][] values;
+  private final int[] sizes;
+  private final int version;
+
+  /**
+   * Compiles the animations of a shape into keyframe tracks, starting from the position, size and
+   * color the shape has before its first animation.
+   *
+   * @param shape - the shape whose animations are compiled.
+   */
+  public ShapeTracks(IShape2D shape) {
+    this.times = new int[CHANNELS][];
+    this.values = new double[CHANNELS][];
+    this.sizes = new int[CHANNELS];
+    this.version = shape.getTimeline().getVersion();
+
+    List<IAnimation> animations = shape.getTimeline().getAnimations();
+    int capacity = 2 * animations.size() + 1;
+    double[] initial = {shape.getPosition().getX(), shape.getPosition().getY(),
+        shape.getSizeArg1(), shape.getSizeArg2(), shape.getColor().getRed(),
+        shape.getColor().getGreen(), shape.getColor().getBlue()};
+    for (int channel = 0; channel < CHANNELS; channel++) {
+      this.times[channel] = new int[capacity];
+      this.values[channel] = new double[capacity];
+      addKey(channel, shape.getStartTime(), initial[channel]);
+    }
+
+    for (IAnimation animation : animations) {
+      int start = animation.getStartTime();
+      int end = animation.getEndTime();
+      switch (animation.getType()) {
+        case Move:
+          Position position = ((Move) animation).getFinalPosition();
+          addSegment(X, start, end, position.getX());
+          addSegment(Y, start, end, position.getY());
+          break;
+        case Scale:
+          Scale scale = (Scale) animation;
+          addSegment(WIDTH, start, end, last(WIDTH) + scale.getDeltaX());
+          addSegment(HEIGHT, start, end, last(HEIGHT) + scale.getDeltaY());
+          break;
+        case Color:
+          Color color = ((ColorChange) animation).getColor();
+          addSegment(RED, start, end, color.getRed());
+          addSegment(GREEN, start, end, color.getGreen());
+          addSegment(BLUE, start, end, color.getBlue());
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Returns the version of the shape's timeline the tracks were compiled from.
+   *
+   * @return - the timeline version.
+   */
+  public int getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Returns the number of keyframes of a track.
+   *
+   * @param channel - the track, one of the channel constants of this class.
+   * @return - the number of keyframes.
+   */
+  public int getKeyCount(int channel) {
+    return this.sizes[channel];
+  }
+
+  /**
+   * Returns the time of a keyframe of a track.
+   *
+   * @param channel - the track, one of the channel constants of this class.
+   * @param index   - the index of the keyframe.
+   * @return - the time of the keyframe.
+   */
+  public int getKeyTime(int channel, int index) {
+    return this.times[channel][index];
+  }
+
+  /**
+   * Returns the value of a keyframe of a track.
+   *
+   * @param channel - the track, one of the channel constants of this class.
+   * @param index   - the index of the keyframe.
+   * @return - the value of the property at the keyframe.
+   */
+  public double getKeyValue(int channel, int index) {
+    return this.values[channel][index];
+  }
+
+  /**
+   * Returns the value of one property at a tick.
+   *
+   * @param channel - the track, one of the channel constants of this class.
+   * @param tick    - the tick to sample at.
+   * @return - the value of the property at the tick.
+   */
+  public double sample(int channel, int tick) {
+    int[] keyTimes = this.times[channel];
+    double[] keyValues = this.values[channel];
+    int size = this.sizes[channel];
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (keyTimes[mid] <= tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    if (low == 0) {
+      return keyValues[0];
+    }
+    if (low == size) {
+      return keyValues[size - 1];
+    }
+    int startTime = keyTimes[low - 1];
+    int endTime = keyTimes[low];
+    return keyValues[low - 1] * ((double) (endTime - tick) / (endTime - startTime))
+            + keyValues[low] * ((double) (tick - startTime) / (endTime - startTime));
+  }
+
+  /**
+   * Returns the earliest keyframe time after a tick on any track. Until then every property moves
+   * along a straight line, or keeps its value.
+   *
+   * @param tick - the tick.
+   * @return - the time of the next keyframe, or {@link Integer#MAX_VALUE} if there is none.
+   */
+  public int getNextKeyTime(int tick) {
+    int next = Integer.MAX_VALUE;
+    for (int channel = 0; channel < CHANNELS; channel++) {
+      int[] keyTimes = this.times[channel];
+      int low = 0;
+      int high = this.sizes[channel];
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (keyTimes[mid] <= tick) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      if (low < this.sizes[channel]) {
+        next = Math.min(next, keyTimes[low]);
+      }
+    }
+    return next;
+  }
+
+  /**
+   * Samples every property at a tick and writes them into a frame. The visibility of the frame is
+   * left untouched.
+   *
+   * @param tick  - the tick to sample at.
+   * @param frame - the frame that receives the values.
+   */
+  public void evaluate(int tick, ShapeFrame frame) {
+    frame.x = sample(X, tick);
+    frame.y = sample(Y, tick);
+    frame.width = sample(WIDTH, tick);
+    frame.height = sample(HEIGHT, tick);
+    frame.red = sample(RED, tick);
+    frame.green = sample(GREEN, tick);
+    frame.blue = sample(BLUE, tick);
+  }
+
+  /**
+   * Adds the keyframes of an animation that takes a property to the target value.
+   */
+  private void addSegment(int channel, int start, int end, double target) {
+    int lastTime = this.times[channel][this.sizes[channel] - 1];
+    if (start > lastTime) {
+      addKey(channel, start, last(channel));
+    }
+    addKey(channel, Math.max(end, lastTime), target);
+  }
+
+  /**
+   * Returns the value of the last keyframe of a track.
+   */
+  private double last(int channel) {
+    return this.values[channel][this.sizes[channel] - 1];
+  }
+
+  /**
+   * Appends a keyframe to a track, growing its arrays if needed.
+   */
+  private void addKey(int channel, int time, double value) {
+    int size = this.sizes[channel];
+    if (size == this.times[channel].length) {
+      this.times[channel] = Arrays.copyOf(this.times[channel], size * 2);
+      this.values[channel] = Arrays.copyOf(this.values[channel], size * 2);
+    }
+    this.times[channel][size] = time;
+    this.values[channel][size] = value;
+    this.sizes[channel] = size + 1;
+  }
+}
@@ -1,13 +1,43 @@
 package util;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A helper to read animation data and construct an animation from it.
  */
 public class AnimationReader {
+  private static final long MAPPED_THRESHOLD = 1L << 20;
+  private static final long PARALLEL_THRESHOLD = 16L << 20;
+  private static final long PARALLEL_WINDOW = 1L << 30;
+  private static final int STATEMENT_LOOKAHEAD = 64;
+  private static final int MIN_CHUNK = 1 << 20;
+  private static final int MAX_CHUNK = 16 << 20;
+  private static final String[] KEYWORDS = {"canvas", "shape", "motion"};
+  private static final String[] CANVAS_FIELDS = {"left", "top", "width", "height"};
+  private static final String[] MOTION_FIELDS = {
+    "initial time",
+    "initial x-coordinate", "initial y-coordinate",
+    "initial width", "initial height",
+    "initial red value", "initial green value", "initial blue value",
+    "final time",
+    "final x-coordinate", "final y-coordinate",
+    "final width", "final height",
+    "final red value", "final green value", "final blue value",
+  };
+
   /**
    * A factory for producing new animations, given a source of shapes and a builder for constructing
    * animations.
@@ -29,95 +59,403 @@ public class AnimationReader {
    * @param readable The source of data for the animation
    * @param builder  A builder for helping to construct a new animation
    * @param <Doc>    The main model interface type describing animations
-   * @return
+   * @return the document built by the builder
    */
   public static <Doc> Doc parseFile(Readable readable, AnimationBuilder<Doc> builder) {
     Objects.requireNonNull(readable, "Must have non-null readable source");
     Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
-    Scanner s = new Scanner(readable);
-    // Split at whitespace, and ignore # comment lines
-    s.useDelimiter(Pattern.compile("(\\p{Space}+|#.*)+"));
+    return parse(AnimationTokenizer.of(readable), builder);
+  }
+
+  /**
+   * Reads an animation from a channel of ASCII bytes, without decoding the input into characters.
+   * The format is the same as for {@link #parseFile(Readable, AnimationBuilder)}.
+   *
+   * @param channel The source of data for the animation
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the document built by the builder
+   */
+  public static <Doc> Doc parseFile(ReadableByteChannel channel, AnimationBuilder<Doc> builder) {
+    Objects.requireNonNull(channel, "Must have non-null readable source");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    return parse(AnimationTokenizer.of(channel), builder);
+  }
+
+  /**
+   * Reads an animation from a memory-mapped file. The ASCII bytes of the file are parsed straight
+   * from the mapping, so no characters are decoded and no strings are built for numbers or
+   * keywords. The format is the same as for {@link #parseFile(Readable, AnimationBuilder)}.
+   *
+   * @param file    The file holding the animation
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the document built by the builder
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  public static <Doc> Doc parseMappedFile(Path file, AnimationBuilder<Doc> builder)
+          throws IllegalArgumentException {
+    Objects.requireNonNull(file, "Must have non-null file");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return parse(AnimationTokenizer.of(channel), builder);
+    } catch (IOException | UncheckedIOException ex) {
+      throw new IllegalArgumentException("File is not valid.");
+    }
+  }
+
+  /**
+   * Reads an animation from a memory-mapped file on the common fork-join pool. See
+   * {@link #parseFileParallel(Path, AnimationBuilder, ForkJoinPool, int)}.
+   *
+   * @param file    The file holding the animation
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the document built by the builder
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  public static <Doc> Doc parseFileParallel(Path file, AnimationBuilder<Doc> builder)
+          throws IllegalArgumentException {
+    return parseFileParallel(file, builder, ForkJoinPool.commonPool(), 0);
+  }
+
+  /**
+   * Reads an animation from a memory-mapped file, reading chunks of it in parallel. The file is
+   * split at line boundaries where a new statement begins and each chunk is read on the given
+   * pool. A {@link ChunkedAnimationBuilder} reads every chunk into a chunk builder of its own and
+   * merges them in file order, so that it builds its document on the pool as well. Any other
+   * builder has the calls read from the chunks delivered to it one chunk after another, so it sees
+   * exactly the calls of a sequential read, in file order, and only the tokenizing is done in
+   * parallel. Either way an error in a chunk is raised once everything before it has been
+   * delivered.
+   *
+   * <p>
+   * Chunks are only split before lines that start with "canvas", "shape" or "motion", so a
+   * statement may still span several lines as long as none of its continuation lines starts with
+   * one of those words.
+   * </p>
+   *
+   * @param file      The file holding the animation
+   * @param builder   A builder for helping to construct a new animation
+   * @param pool      The pool to tokenize the chunks on
+   * @param chunkSize The approximate size of a chunk in bytes, or 0 to size chunks by the file size
+   *                  and the parallelism of the pool
+   * @param <Doc>     The main model interface type describing animations
+   * @return the document built by the builder
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  public static <Doc> Doc parseFileParallel(Path file, AnimationBuilder<Doc> builder,
+                                            ForkJoinPool pool, int chunkSize)
+          throws IllegalArgumentException {
+    Objects.requireNonNull(file, "Must have non-null file");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    Objects.requireNonNull(pool, "Must provide a non-null pool");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (chunkSize <= 0) {
+        chunkSize = (int) Math.max(MIN_CHUNK,
+                Math.min(MAX_CHUNK, size / (4L * pool.getParallelism())));
+      }
+      long start = 0;
+      while (start < size) {
+        long length = Math.min(PARALLEL_WINDOW, size - start);
+        ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        int end = (int) length;
+        if (start + length < size) {
+          end = lastStatement(window, end);
+          if (end == 0) {
+            // the statement or comment the window starts with runs past it, so the window is
+            // stretched to the next statement rather than cutting it in two
+            long next = nextStatement(channel, start + length, size);
+            if (next - start > Integer.MAX_VALUE) {
+              throw new IllegalArgumentException("File is not valid.");
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, next - start);
+            end = (int) (next - start);
+          }
+        }
+        if (builder instanceof ChunkedAnimationBuilder) {
+          buildChunks(window, end, (ChunkedAnimationBuilder<?, ?>) builder, pool, chunkSize);
+        } else {
+          parseChunks(window, end, builder, pool, chunkSize);
+        }
+        start += end;
+      }
+    } catch (IOException | UncheckedIOException ex) {
+      throw new IllegalArgumentException("File is not valid.");
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads the named file, choosing how by its kind and size: binary scene files are handed to
+   * {@link BinaryAnimationReader}, large text files are read in parallel when more than one core
+   * is available, medium ones are memory-mapped and small ones are streamed through a buffer.
+   *
+   * @param fileName The name of the file holding the animation
+   * @param builder  A builder for helping to construct a new animation
+   * @param <Doc>    The main model interface type describing animations
+   * @return the document built by the builder
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  public static <Doc> Doc readFile(String fileName, AnimationBuilder<Doc> builder)
+          throws IllegalArgumentException {
+    Objects.requireNonNull(fileName, "Must have non-null file name");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    Path file = Paths.get(fileName);
+    if (fileName.endsWith(BinaryAnimationReader.EXTENSION)) {
+      return BinaryAnimationReader.parseFile(file, builder);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() >= PARALLEL_THRESHOLD
+              && ForkJoinPool.getCommonPoolParallelism() > 1) {
+        return parseFileParallel(file, builder);
+      }
+      if (channel.size() >= MAPPED_THRESHOLD) {
+        return parse(AnimationTokenizer.of(channel), builder);
+      }
+      return parse(AnimationTokenizer.of((ReadableByteChannel) channel), builder);
+    } catch (IOException | UncheckedIOException ex) {
+      throw new IllegalArgumentException("File is not valid.");
+    }
+  }
+
+  private static <Doc> Doc parse(AnimationTokenizer s, AnimationBuilder<Doc> builder) {
     while (s.hasNext()) {
-      String word = s.next();
-      switch (word) {
-        case "canvas":
+      switch (s.nextKeyword(KEYWORDS)) {
+        case 0:
           readCanvas(s, builder);
           break;
-        case "shape":
+        case 1:
           readShape(s, builder);
           break;
-        case "motion":
+        case 2:
           readMotion(s, builder);
           break;
         default:
-          throw new IllegalStateException("Unexpected keyword: " + word + s.nextLine());
+          throw new IllegalStateException("Unexpected keyword: " + s.lastToken()
+                  + s.restOfLine());
       }
     }
     return builder.build();
   }
 
-  private static <Doc> void readCanvas(Scanner s, AnimationBuilder<Doc> builder) {
+  /**
+   * Splits the first {@code limit} bytes of a buffer into chunks, tokenizes them on the pool and
+   * replays them on the builder in order. Only a bounded number of chunks is in flight at a time,
+   * so the recorded calls never take much more memory than the chunks being worked on.
+   */
+  private static <Doc> void parseChunks(ByteBuffer window, int limit,
+                                        AnimationBuilder<Doc> builder, ForkJoinPool pool,
+                                        int chunkSize) {
+    ArrayDeque<ForkJoinTask<AnimationRecorder>> inFlight = new ArrayDeque<>();
+    int maxInFlight = 2 * pool.getParallelism() + 1;
+    int from = 0;
+    try {
+      while (from < limit || !inFlight.isEmpty()) {
+        while (from < limit && inFlight.size() < maxInFlight) {
+          int to = chunkEnd(window, from, limit, chunkSize);
+          ByteBuffer chunk = slice(window, from, to);
+          inFlight.add(pool.submit(() -> readChunk(chunk)));
+          from = to;
+        }
+        inFlight.poll().join().replay(builder);
+      }
+    } finally {
+      for (ForkJoinTask<AnimationRecorder> task : inFlight) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Splits the first {@code limit} bytes of a buffer into chunks and reads each of them on the pool
+   * into a chunk builder of its own. The chunks are merged into the builder a batch at a time, so
+   * only a bounded number of chunks is held at once. An error in a chunk is raised once the chunks
+   * before it, and the part of it read before the error, have been merged.
+   */
+  private static <C extends AnimationBuilder<?>> void buildChunks(ByteBuffer window, int limit,
+          ChunkedAnimationBuilder<?, C> builder, ForkJoinPool pool, int chunkSize) {
+    ArrayDeque<ForkJoinTask<RuntimeException>> inFlight = new ArrayDeque<>();
+    ArrayDeque<C> pending = new ArrayDeque<>();
+    int batchSize = 2 * pool.getParallelism() + 1;
+    int from = 0;
+    try {
+      while (from < limit) {
+        while (from < limit && inFlight.size() < batchSize) {
+          int to = chunkEnd(window, from, limit, chunkSize);
+          ByteBuffer chunk = slice(window, from, to);
+          C part = builder.newChunk();
+          inFlight.add(pool.submit(() -> readChunk(chunk, part)));
+          pending.add(part);
+          from = to;
+        }
+        List<C> batch = new ArrayList<>(pending.size());
+        RuntimeException failure = null;
+        while (!inFlight.isEmpty() && failure == null) {
+          failure = inFlight.poll().join();
+          batch.add(pending.poll());
+        }
+        builder.mergeChunks(batch, pool);
+        if (failure != null) {
+          throw failure;
+        }
+      }
+    } finally {
+      for (ForkJoinTask<RuntimeException> task : inFlight) {
+        task.cancel(false);
+      }
+    }
+  }
+
+  private static AnimationRecorder readChunk(ByteBuffer chunk) {
+    AnimationRecorder recorder = new AnimationRecorder();
+    RuntimeException failure = readChunk(chunk, recorder);
+    if (failure != null) {
+      recorder.fail(failure);
+    }
+    return recorder;
+  }
+
+  /**
+   * Reads a chunk into the given builder.
+   *
+   * @return the error that stopped the chunk from being read any further, or null if there was none
+   */
+  private static RuntimeException readChunk(ByteBuffer chunk, AnimationBuilder<?> builder) {
+    try {
+      parse(AnimationTokenizer.of(chunk), builder);
+      return null;
+    } catch (RuntimeException ex) {
+      return ex;
+    }
+  }
+
+  /**
+   * Finds the end of the chunk that starts at {@code from}: the first statement at least
+   * {@code chunkSize} bytes further on, or {@code limit} if there is none.
+   */
+  private static int chunkEnd(ByteBuffer window, int from, int limit, int chunkSize) {
+    return limit - from <= chunkSize ? limit : nextStatement(window, from + chunkSize, limit);
+  }
+
+  /**
+   * Returns a view of the bytes of a buffer between two offsets.
+   */
+  private static ByteBuffer slice(ByteBuffer buffer, int from, int to) {
+    ByteBuffer chunk = buffer.duplicate();
+    chunk.limit(to);
+    chunk.position(from);
+    return chunk;
+  }
+
+  /**
+   * Finds the first statement that begins on a line starting at or after {@code from}.
+   *
+   * @return the offset of the start of that line, or {@code limit} if there is none
+   */
+  private static int nextStatement(ByteBuffer buffer, int from, int limit) {
+    for (int i = Math.max(from, 1); i < limit; i++) {
+      if (buffer.get(i - 1) == '\n' && startsStatement(buffer, i, limit)) {
+        return i;
+      }
+    }
+    return limit;
+  }
+
+  /**
+   * Finds the first statement that begins on a line starting at or after {@code from} in a file,
+   * mapping the file a window at a time. Consecutive windows overlap by a few bytes, so that a
+   * keyword crossing the end of one window is found in the next.
+   *
+   * @return the offset of the start of that line, or {@code size} if there is none
+   */
+  private static long nextStatement(FileChannel channel, long from, long size)
+          throws IOException {
+    for (long at = from; at < size; at += PARALLEL_WINDOW) {
+      // the window starts one byte early for the line break before the statement
+      long length = Math.min(PARALLEL_WINDOW + STATEMENT_LOOKAHEAD, size - at + 1);
+      ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, at - 1, length);
+      int found = nextStatement(window, 1, (int) length);
+      if (found < length) {
+        return at - 1 + found;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Finds the last statement that begins a line within the first {@code limit} bytes.
+   *
+   * @return the offset of the start of that line, or 0 if there is none
+   */
+  private static int lastStatement(ByteBuffer buffer, int limit) {
+    for (int i = limit - 1; i > 0; i--) {
+      if (buffer.get(i - 1) == '\n' && startsStatement(buffer, i, limit)) {
+        return i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Checks whether the line starting at the given offset begins with one of the keywords.
+   */
+  private static boolean startsStatement(ByteBuffer buffer, int at, int limit) {
+    while (at < limit && (buffer.get(at) == ' ' || buffer.get(at) == '\t')) {
+      at++;
+    }
+    for (String keyword : KEYWORDS) {
+      int end = at + keyword.length();
+      if (end < limit) {
+        int i = 0;
+        while (i < keyword.length() && buffer.get(at + i) == keyword.charAt(i)) {
+          i++;
+        }
+        byte after = buffer.get(end);
+        if (i == keyword.length()
+                && (after == ' ' || (after >= '\t' && after <= '\r') || after == '#')) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static <Doc> void readCanvas(AnimationTokenizer s, AnimationBuilder<Doc> builder) {
     int[] vals = new int[4];
-    String[] fieldNames = {"left", "top", "width", "height"};
     for (int i = 0; i < 4; i++) {
-      vals[i] = getInt(s, "Canvas", fieldNames[i]);
+      vals[i] = s.nextInt("Canvas", CANVAS_FIELDS[i]);
     }
     builder.setBounds(vals[0], vals[1], vals[2], vals[3]);
   }
 
-  private static <Doc> void readShape(Scanner s, AnimationBuilder<Doc> builder) {
-    String name;
-    String type;
-    if (s.hasNext()) {
-      name = s.next();
-    } else {
+  private static <Doc> void readShape(AnimationTokenizer s, AnimationBuilder<Doc> builder) {
+    String name = s.nextToken();
+    if (name == null) {
       throw new IllegalStateException("Shape: Expected a name, but no more input available");
     }
-    if (s.hasNext()) {
-      type = s.next();
-    } else {
+    String type = s.nextToken();
+    if (type == null) {
       throw new IllegalStateException("Shape: Expected a type, but no more input available");
     }
     builder.declareShape(name, type);
   }
 
-  private static <Doc> void readMotion(Scanner s, AnimationBuilder<Doc> builder) {
-    String[] fieldNames = new String[]{
-      "initial time",
-      "initial x-coordinate", "initial y-coordinate",
-      "initial width", "initial height",
-      "initial red value", "initial green value", "initial blue value",
-      "final time",
-      "final x-coordinate", "final y-coordinate",
-      "final width", "final height",
-      "final red value", "final green value", "final blue value",
-    };
-    int[] vals = new int[16];
-    String name;
-    if (s.hasNext()) {
-      name = s.next();
-    } else {
+  private static <Doc> void readMotion(AnimationTokenizer s, AnimationBuilder<Doc> builder) {
+    String name = s.nextToken();
+    if (name == null) {
       throw new IllegalStateException("Motion: Expected a shape name, but no more input available");
     }
-    for (int i = 0; i < 16; i++) {
-      vals[i] = getInt(s, "Motion", fieldNames[i]);
-    }
     builder.addMotion(name,
-            vals[0], vals[1], vals[2], vals[3], vals[4], vals[5], vals[6], vals[7],
-            vals[8], vals[9], vals[10], vals[11], vals[12], vals[13], vals[14], vals[15]);
-  }
-
-  private static int getInt(Scanner s, String label, String fieldName) {
-    if (s.hasNextInt()) {
-      return s.nextInt();
-    } else if (s.hasNext()) {
-      throw new IllegalStateException(
-              String.format("%s: expected integer for %s, got: %s", label, fieldName, s.next()));
-    } else {
-      throw new IllegalStateException(
-              String.format("%s: expected integer for %s, but no more input available",
-                      label, fieldName));
-    }
+            s.nextInt("Motion", MOTION_FIELDS[0]), s.nextInt("Motion", MOTION_FIELDS[1]),
+            s.nextInt("Motion", MOTION_FIELDS[2]), s.nextInt("Motion", MOTION_FIELDS[3]),
+            s.nextInt("Motion", MOTION_FIELDS[4]), s.nextInt("Motion", MOTION_FIELDS[5]),
+            s.nextInt("Motion", MOTION_FIELDS[6]), s.nextInt("Motion", MOTION_FIELDS[7]),
+            s.nextInt("Motion", MOTION_FIELDS[8]), s.nextInt("Motion", MOTION_FIELDS[9]),
+            s.nextInt("Motion", MOTION_FIELDS[10]), s.nextInt("Motion", MOTION_FIELDS[11]),
+            s.nextInt("Motion", MOTION_FIELDS[12]), s.nextInt("Motion", MOTION_FIELDS[13]),
+            s.nextInt("Motion", MOTION_FIELDS[14]), s.nextInt("Motion", MOTION_FIELDS[15]));
   }
 
 }
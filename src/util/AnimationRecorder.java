@@ -0,0 +1,145 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an animation builder that records the calls made to it instead of building
+ * a document, so that they can be replayed later, in the same order, on another builder. It lets
+ * chunks of an animation file be tokenized independently while the real builder still sees every
+ * declaration and motion in file order.
+ */
+final class AnimationRecorder implements AnimationBuilder<Void> {
+  private static final byte CANVAS = 0;
+  private static final byte SHAPE = 1;
+  private static final byte MOTION = 2;
+
+  private byte[] kinds;
+  private String[] names;
+  private String[] types;
+  private int[] values;
+  private int count;
+  private int valueCount;
+  private RuntimeException failure;
+
+  /**
+   * Constructs an empty recorder.
+   */
+  AnimationRecorder() {
+    this.kinds = new byte[1024];
+    this.names = new String[1024];
+    this.types = new String[1024];
+    this.values = new int[1024 * 16];
+  }
+
+  /**
+   * Remembers the error that stopped the recorded chunk from being read any further. It is thrown
+   * by {@link #replay} after every call recorded before it has been replayed.
+   *
+   * @param failure the error raised while reading the chunk
+   */
+  void fail(RuntimeException failure) {
+    this.failure = failure;
+  }
+
+  /**
+   * Replays the recorded calls on the given builder, in the order in which they were recorded.
+   *
+   * @param builder the builder to replay the calls on
+   * @throws RuntimeException the error recorded with {@link #fail}, if any
+   */
+  void replay(AnimationBuilder<?> builder) {
+    int v = 0;
+    for (int i = 0; i < count; i++) {
+      switch (kinds[i]) {
+        case CANVAS:
+          builder.setBounds(values[v], values[v + 1], values[v + 2], values[v + 3]);
+          v += 4;
+          break;
+        case SHAPE:
+          builder.declareShape(names[i], types[i]);
+          break;
+        default:
+          builder.addMotion(names[i],
+                  values[v], values[v + 1], values[v + 2], values[v + 3],
+                  values[v + 4], values[v + 5], values[v + 6], values[v + 7],
+                  values[v + 8], values[v + 9], values[v + 10], values[v + 11],
+                  values[v + 12], values[v + 13], values[v + 14], values[v + 15]);
+          v += 16;
+          break;
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @Override
+  public Void build() {
+    return null;
+  }
+
+  @Override
+  public AnimationBuilder<Void> setBounds(int x, int y, int width, int height) {
+    record(CANVAS, null, null);
+    values[valueCount++] = x;
+    values[valueCount++] = y;
+    values[valueCount++] = width;
+    values[valueCount++] = height;
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<Void> declareShape(String name, String type) {
+    record(SHAPE, name, type);
+    return this;
+  }
+
+  @Override
+  public AnimationBuilder<Void> addMotion(String name, int t1, int x1, int y1, int w1, int h1,
+                                          int r1, int g1, int b1, int t2, int x2, int y2,
+                                          int w2, int h2, int r2, int g2, int b2) {
+    record(MOTION, name, null);
+    int[] v = values;
+    int i = valueCount;
+    v[i] = t1;
+    v[i + 1] = x1;
+    v[i + 2] = y1;
+    v[i + 3] = w1;
+    v[i + 4] = h1;
+    v[i + 5] = r1;
+    v[i + 6] = g1;
+    v[i + 7] = b1;
+    v[i + 8] = t2;
+    v[i + 9] = x2;
+    v[i + 10] = y2;
+    v[i + 11] = w2;
+    v[i + 12] = h2;
+    v[i + 13] = r2;
+    v[i + 14] = g2;
+    v[i + 15] = b2;
+    valueCount += 16;
+    return this;
+  }
+
+  /**
+   * Appends one call to the log, making room for it and its integer arguments.
+   *
+   * @param kind the kind of call
+   * @param name the shape name of the call, if any
+   * @param type the shape type of the call, if any
+   */
+  private void record(byte kind, String name, String type) {
+    if (count == kinds.length) {
+      kinds = Arrays.copyOf(kinds, count * 2);
+      names = Arrays.copyOf(names, count * 2);
+      types = Arrays.copyOf(types, count * 2);
+    }
+    if (valueCount + 16 > values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    kinds[count] = kind;
+    names[count] = name;
+    types[count] = type;
+    count++;
+  }
+}
@@ -0,0 +1,477 @@
+package util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * This class represents a hand-written tokenizer for the animation file format. It replaces the
+ * regex-driven {@link java.util.Scanner}: tokens are separated by whitespace, a '#' starts a comment
+ * that runs to the end of the line, integers are parsed straight from the input without building a
+ * string, and shape names are interned so that repeated names do not allocate.
+ */
+abstract class AnimationTokenizer {
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final long MAP_WINDOW = 1L << 30;
+  private static final int EOF = -1;
+
+  private char[] token;
+  private int tokenLength;
+  private String[] names;
+  private int nameCount;
+  private int pending;
+
+  /**
+   * Constructs a tokenizer with an empty token buffer and name table.
+   */
+  AnimationTokenizer() {
+    this.token = new char[64];
+    this.names = new String[256];
+    this.pending = EOF - 1;
+  }
+
+  /**
+   * Creates a tokenizer that reads characters from the given source.
+   *
+   * @param readable the source of characters
+   * @return a tokenizer over the source
+   */
+  static AnimationTokenizer of(Readable readable) {
+    return new CharTokenizer(Objects.requireNonNull(readable));
+  }
+
+  /**
+   * Creates a tokenizer that reads ASCII bytes from the given channel.
+   *
+   * @param channel the source of bytes
+   * @return a tokenizer over the channel
+   */
+  static AnimationTokenizer of(ReadableByteChannel channel) {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    buffer.flip();
+    return new ByteTokenizer(buffer, Objects.requireNonNull(channel));
+  }
+
+  /**
+   * Creates a tokenizer that reads ASCII bytes from the remaining content of a buffer, for example
+   * a region of a memory-mapped file.
+   *
+   * @param buffer the bytes to read, from its position to its limit
+   * @return a tokenizer over the buffer
+   */
+  static AnimationTokenizer of(ByteBuffer buffer) {
+    return new ByteTokenizer(Objects.requireNonNull(buffer), null);
+  }
+
+  /**
+   * Creates a tokenizer that memory-maps the given file and reads its ASCII bytes directly from the
+   * mapping. Files larger than a single mapping can address are mapped one window at a time.
+   *
+   * @param file the file to read
+   * @return a tokenizer over the whole file
+   */
+  static AnimationTokenizer of(FileChannel file) {
+    return new MappedTokenizer(Objects.requireNonNull(file));
+  }
+
+  /**
+   * Returns the next character of the input, or -1 once the input is exhausted.
+   *
+   * @return the next character
+   */
+  protected abstract int read();
+
+  /**
+   * Returns the next character, taking a character pushed back by {@link #unread} first.
+   *
+   * @return the next character
+   */
+  private int next() {
+    if (pending >= EOF) {
+      int c = pending;
+      pending = EOF - 1;
+      return c;
+    }
+    return read();
+  }
+
+  /**
+   * Pushes a single character back so that it is returned by the next call to {@link #next}.
+   *
+   * @param c the character to push back
+   */
+  private void unread(int c) {
+    pending = c;
+  }
+
+  /**
+   * Skips whitespace and comments and reports whether another token is available.
+   *
+   * @return true if a token follows, false at the end of the input
+   */
+  boolean hasNext() {
+    int c = next();
+    while (true) {
+      if (c == '#') {
+        c = next();
+        while (c != '\n' && c != '\r' && c != EOF) {
+          c = next();
+        }
+      } else if (isSpace(c)) {
+        c = next();
+      } else {
+        break;
+      }
+    }
+    unread(c);
+    return c != EOF;
+  }
+
+  /**
+   * Reads the next token into the internal token buffer.
+   *
+   * @return true if a token was read, false at the end of the input
+   */
+  private boolean readToken() {
+    if (!hasNext()) {
+      return false;
+    }
+    tokenLength = 0;
+    int c = next();
+    while (c != EOF && c != '#' && !isSpace(c)) {
+      append(c);
+      c = next();
+    }
+    unread(c);
+    return true;
+  }
+
+  /**
+   * Returns the next token as a string. Equal tokens share a single string instance, so reading the
+   * same shape name many times does not allocate.
+   *
+   * @return the next token, or null at the end of the input
+   */
+  String nextToken() {
+    if (!readToken()) {
+      return null;
+    }
+    return intern();
+  }
+
+  /**
+   * Reads the next token and compares it to the given keywords without allocating.
+   *
+   * @param keywords the keywords to look for
+   * @return the index of the matching keyword, -1 if the token matches none of them, or -2 at the
+   *         end of the input
+   */
+  int nextKeyword(String... keywords) {
+    if (!readToken()) {
+      return -2;
+    }
+    for (int i = 0; i < keywords.length; i++) {
+      if (tokenMatches(keywords[i])) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the most recently read token as a new string.
+   *
+   * @return the last token
+   */
+  String lastToken() {
+    return new String(token, 0, tokenLength);
+  }
+
+  /**
+   * Returns the remainder of the current line, mirroring {@link java.util.Scanner#nextLine}.
+   *
+   * @return the rest of the current line, without its line terminator
+   */
+  String restOfLine() {
+    StringBuilder line = new StringBuilder();
+    int c = next();
+    while (c != '\n' && c != '\r' && c != EOF) {
+      line.append((char) c);
+      c = next();
+    }
+    if (c == '\r') {
+      int lf = next();
+      if (lf != '\n') {
+        unread(lf);
+      }
+    }
+    return line.toString();
+  }
+
+  /**
+   * Reads the next token as an integer.
+   *
+   * @param label     the kind of line being read, used in error messages
+   * @param fieldName the field being read, used in error messages
+   * @return the integer value of the token
+   * @throws IllegalStateException if the token is not an integer or the input is exhausted
+   */
+  int nextInt(String label, String fieldName) throws IllegalStateException {
+    if (!hasNext()) {
+      throw new IllegalStateException(
+              String.format("%s: expected integer for %s, but no more input available",
+                      label, fieldName));
+    }
+    int c = next();
+    boolean negative = false;
+    int digits = 0;
+    long value = 0;
+    tokenLength = 0;
+    if (c == '-' || c == '+') {
+      negative = c == '-';
+      append(c);
+      c = next();
+    }
+    while (c >= '0' && c <= '9') {
+      append(c);
+      value = value * 10 + (c - '0');
+      if (value > (long) Integer.MAX_VALUE + 1) {
+        value = (long) Integer.MAX_VALUE + 2;
+      }
+      digits++;
+      c = next();
+    }
+    if (digits > 0 && (c == EOF || c == '#' || isSpace(c))) {
+      unread(c);
+      long signed = negative ? -value : value;
+      if (signed >= Integer.MIN_VALUE && signed <= Integer.MAX_VALUE) {
+        return (int) signed;
+      }
+    } else {
+      while (c != EOF && c != '#' && !isSpace(c)) {
+        append(c);
+        c = next();
+      }
+      unread(c);
+    }
+    throw new IllegalStateException(
+            String.format("%s: expected integer for %s, got: %s", label, fieldName, lastToken()));
+  }
+
+  /**
+   * Appends a character to the token buffer, growing it if needed.
+   *
+   * @param c the character to append
+   */
+  private void append(int c) {
+    if (tokenLength == token.length) {
+      char[] grown = new char[token.length * 2];
+      System.arraycopy(token, 0, grown, 0, tokenLength);
+      token = grown;
+    }
+    token[tokenLength++] = (char) c;
+  }
+
+  /**
+   * Compares the current token with a string.
+   *
+   * @param word the string to compare with
+   * @return true if the token has exactly the characters of the word
+   */
+  private boolean tokenMatches(String word) {
+    if (word.length() != tokenLength) {
+      return false;
+    }
+    for (int i = 0; i < tokenLength; i++) {
+      if (word.charAt(i) != token[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Looks the current token up in the open-addressed name table, adding it if it is new.
+   *
+   * @return the shared string for the current token
+   */
+  private String intern() {
+    int hash = 0;
+    for (int i = 0; i < tokenLength; i++) {
+      hash = 31 * hash + token[i];
+    }
+    int mask = names.length - 1;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (names[slot] != null) {
+      if (names[slot].hashCode() == hash && tokenMatches(names[slot])) {
+        return names[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    String name = lastToken();
+    names[slot] = name;
+    nameCount++;
+    if (nameCount * 2 > names.length) {
+      rehash();
+    }
+    return name;
+  }
+
+  /**
+   * Doubles the size of the name table.
+   */
+  private void rehash() {
+    String[] old = names;
+    names = new String[old.length * 2];
+    int mask = names.length - 1;
+    for (String name : old) {
+      if (name != null) {
+        int hash = name.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (names[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        names[slot] = name;
+      }
+    }
+  }
+
+  /**
+   * Checks whether a character is whitespace in the sense of the regex class \p{Space}.
+   *
+   * @param c the character
+   * @return true for space, tab, newline, vertical tab, form feed and carriage return
+   */
+  private static boolean isSpace(int c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+
+  /**
+   * A tokenizer reading characters from a {@link Readable} into a reused buffer.
+   */
+  private static final class CharTokenizer extends AnimationTokenizer {
+    private final Readable readable;
+    private final CharBuffer buffer;
+
+    CharTokenizer(Readable readable) {
+      this.readable = readable;
+      this.buffer = CharBuffer.allocate(BUFFER_SIZE);
+      this.buffer.flip();
+    }
+
+    @Override
+    protected int read() {
+      if (!buffer.hasRemaining()) {
+        buffer.clear();
+        int count;
+        try {
+          do {
+            count = readable.read(buffer);
+          }
+          while (count == 0);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+        buffer.flip();
+        if (count < 0) {
+          return EOF;
+        }
+      }
+      return buffer.get();
+    }
+  }
+
+  /**
+   * A tokenizer reading ASCII bytes from a {@link ByteBuffer}, refilled from a channel if one is
+   * given. Each byte is treated as one character, so no charset decoding takes place.
+   */
+  private static final class ByteTokenizer extends AnimationTokenizer {
+    private final ByteBuffer buffer;
+    private final ReadableByteChannel channel;
+
+    ByteTokenizer(ByteBuffer buffer, ReadableByteChannel channel) {
+      this.buffer = buffer;
+      this.channel = channel;
+    }
+
+    /**
+     * Makes more bytes available in the buffer once it has been consumed.
+     *
+     * @return false if there is no more input
+     */
+    private boolean refill() {
+      if (channel == null) {
+        return false;
+      }
+      buffer.clear();
+      int count;
+      try {
+        do {
+          count = channel.read(buffer);
+        }
+        while (count == 0);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      buffer.flip();
+      return count > 0;
+    }
+
+    @Override
+    protected int read() {
+      if (!buffer.hasRemaining() && !refill()) {
+        return EOF;
+      }
+      return buffer.get() & 0xff;
+    }
+  }
+
+  /**
+   * A tokenizer reading ASCII bytes from a memory-mapped file. The file is mapped read-only in
+   * windows of at most {@code MAP_WINDOW} bytes; since the tokenizer keeps its state between
+   * characters, a token may straddle two windows.
+   */
+  private static final class MappedTokenizer extends AnimationTokenizer {
+    private final FileChannel file;
+    private ByteBuffer buffer;
+    private long mapped;
+
+    MappedTokenizer(FileChannel file) {
+      this.file = file;
+      this.buffer = ByteBuffer.allocate(0);
+      this.mapped = 0;
+    }
+
+    /**
+     * Maps the next window of the file once the current one has been consumed.
+     *
+     * @return false if the whole file has been read
+     */
+    private boolean mapNext() {
+      try {
+        long size = file.size();
+        if (mapped >= size) {
+          return false;
+        }
+        long length = Math.min(MAP_WINDOW, size - mapped);
+        buffer = file.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+        mapped += length;
+        return true;
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+
+    @Override
+    protected int read() {
+      if (!buffer.hasRemaining() && !mapNext()) {
+        return EOF;
+      }
+      return buffer.get() & 0xff;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * A helper to read an animation stored in the compact binary scene format and construct an
+ * animation from it. Unlike {@link AnimationReader} there is nothing to tokenize: every value sits
+ * at a fixed offset and is read straight out of the buffer.
+ *
+ * <p>
+ * All values are big-endian. A file consists of:
+ * <ul>
+ * <li>a header: the magic number {@code 0x45415342} ("EASB"), a two-byte format version and two
+ * bytes of flags (currently zero);</li>
+ * <li>the canvas: four ints giving its left, top, width and height;</li>
+ * <li>the shape table: an int count, then for every shape one byte for its type (0 for a
+ * rectangle, 1 for an ellipse), a two-byte length and the UTF-8 bytes of its name;</li>
+ * <li>the motions: an int count, then fixed-width records of 17 ints each, the index of the shape
+ * in the shape table followed by the 16 integers of {@link AnimationBuilder#addMotion}.</li>
+ * </ul>
+ * </p>
+ */
+public class BinaryAnimationReader {
+  /**
+   * The file name extension of binary scene files.
+   */
+  public static final String EXTENSION = ".esb";
+
+  static final int MAGIC = 0x45415342;
+  static final short VERSION = 1;
+  static final String[] SHAPE_TYPES = {"rectangle", "ellipse"};
+  static final int MOTION_RECORD_SIZE = 17 * Integer.BYTES;
+
+  /**
+   * Drives the builder with the scene stored in the remaining content of the buffer.
+   *
+   * @param buffer  The bytes of the scene, for example a mapped file
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the document built by the builder
+   * @throws IllegalStateException if the buffer does not hold a valid scene
+   */
+  public static <Doc> Doc parse(ByteBuffer buffer, AnimationBuilder<Doc> builder)
+          throws IllegalStateException {
+    Objects.requireNonNull(buffer, "Must have non-null buffer");
+    Objects.requireNonNull(builder, "Must provide a non-null AnimationBuilder");
+    ByteBuffer in = buffer.duplicate();
+    try {
+      if (in.getInt() != MAGIC) {
+        throw new IllegalStateException("Input is not a binary scene.");
+      }
+      short version = in.getShort();
+      if (version != VERSION) {
+        throw new IllegalStateException("Unsupported binary scene version: " + version);
+      }
+      in.getShort();
+      builder.setBounds(in.getInt(), in.getInt(), in.getInt(), in.getInt());
+
+      String[] names = new String[in.getInt()];
+      for (int i = 0; i < names.length; i++) {
+        int type = in.get();
+        byte[] name = new byte[in.getShort() & 0xffff];
+        in.get(name);
+        if (type < 0 || type >= SHAPE_TYPES.length) {
+          throw new IllegalStateException("Shape: unknown type " + type);
+        }
+        names[i] = new String(name, StandardCharsets.UTF_8);
+        builder.declareShape(names[i], SHAPE_TYPES[type]);
+      }
+
+      int motions = in.getInt();
+      int at = in.position();
+      if (motions < 0 || (long) motions * MOTION_RECORD_SIZE > in.limit() - at) {
+        throw new IllegalStateException("Motion: expected " + motions
+                + " motions, but no more input available");
+      }
+      for (int i = 0; i < motions; i++, at += MOTION_RECORD_SIZE) {
+        int shape = in.getInt(at);
+        if (shape < 0 || shape >= names.length) {
+          throw new IllegalStateException("Motion: unknown shape index " + shape);
+        }
+        builder.addMotion(names[shape],
+                in.getInt(at + 4), in.getInt(at + 8), in.getInt(at + 12), in.getInt(at + 16),
+                in.getInt(at + 20), in.getInt(at + 24), in.getInt(at + 28), in.getInt(at + 32),
+                in.getInt(at + 36), in.getInt(at + 40), in.getInt(at + 44), in.getInt(at + 48),
+                in.getInt(at + 52), in.getInt(at + 56), in.getInt(at + 60), in.getInt(at + 64));
+      }
+    } catch (BufferUnderflowException ex) {
+      throw new IllegalStateException("Binary scene ended unexpectedly.");
+    }
+    return builder.build();
+  }
+
+  /**
+   * Memory-maps a binary scene file and drives the builder with its content.
+   *
+   * @param file    The file holding the scene
+   * @param builder A builder for helping to construct a new animation
+   * @param <Doc>   The main model interface type describing animations
+   * @return the document built by the builder
+   * @throws IllegalArgumentException if the file cannot be read
+   */
+  public static <Doc> Doc parseFile(Path file, AnimationBuilder<Doc> builder)
+          throws IllegalArgumentException {
+    Objects.requireNonNull(file, "Must have non-null file");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), builder);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("File is not valid.");
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+import model.IAnimationModel;
+import model.animations.ColorChange;
+import model.animations.IAnimation;
+import model.animations.Move;
+import model.animations.Scale;
+import model.shapes.IShape2D;
+import model.shapes.Shape2DType;
+
+/**
+ * A helper to write an animation model in the compact binary scene format read by
+ * {@link BinaryAnimationReader}.
+ *
+ * <p>
+ * The model is written as the motions the builder turns into it: the first motion of each shape
+ * gives its initial state, and every run of animations sharing the same start and end time becomes
+ * one motion. Reading the file back with {@link model.AnimationModelImpl.Builder} therefore yields
+ * the same shapes and animations as the model that was written, for any model built by it.
+ * </p>
+ */
+public class BinaryAnimationWriter {
+  private static final int MAX_NAME_LENGTH = 0xffff;
+  // room for the longest shape entry, its type and length included
+  private static final int BUFFER_SIZE = 1 << 17;
+
+  /**
+   * Writes the model to the channel in the binary scene format.
+   *
+   * @param model   the model to write
+   * @param channel the channel to write to
+   * @throws IllegalArgumentException if the scene could not be written, or a shape name is longer
+   *                                  than 65535 bytes in UTF-8
+   */
+  public static void write(IAnimationModel model, WritableByteChannel channel)
+          throws IllegalArgumentException {
+    Objects.requireNonNull(model);
+    Objects.requireNonNull(channel);
+    List<IShape2D> shapes = model.getModelShapes();
+    ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+    try {
+      out.putInt(BinaryAnimationReader.MAGIC);
+      out.putShort(BinaryAnimationReader.VERSION);
+      out.putShort((short) 0);
+      out.putInt(model.getCanvasX());
+      out.putInt(model.getCanvasY());
+      out.putInt(model.getCanvasWidth());
+      out.putInt(model.getCanvasHeight());
+
+      out.putInt(shapes.size());
+      int motions = 0;
+      for (IShape2D shape : shapes) {
+        byte[] name = shape.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_LENGTH) {
+          throw new IllegalArgumentException("Shape name is too long: " + shape.getName());
+        }
+        if (out.remaining() < 3 + name.length) {
+          drain(out, channel);
+        }
+        out.put((byte) (shape.getType() == Shape2DType.Rectangle ? 0 : 1));
+        out.putShort((short) name.length);
+        out.put(name);
+        motions += 1 + countMotions(shape.getAnimation());
+      }
+      if (out.remaining() < 4) {
+        drain(out, channel);
+      }
+      out.putInt(motions);
+
+      int[] state = new int[7];
+      int[] from = new int[7];
+      for (int index = 0; index < shapes.size(); index++) {
+        IShape2D shape = shapes.get(index);
+        state[0] = (int) Math.round(shape.getPosition().getX());
+        state[1] = (int) Math.round(shape.getPosition().getY());
+        state[2] = (int) Math.round(shape.getSizeArg1());
+        state[3] = (int) Math.round(shape.getSizeArg2());
+        state[4] = (int) Math.round(shape.getColor().getRed());
+        state[5] = (int) Math.round(shape.getColor().getGreen());
+        state[6] = (int) Math.round(shape.getColor().getBlue());
+        putMotion(out, channel, index, shape.getStartTime(), state, shape.getStartTime(), state);
+
+        List<IAnimation> animations = shape.getAnimation();
+        int i = 0;
+        while (i < animations.size()) {
+          int start = animations.get(i).getStartTime();
+          int end = animations.get(i).getEndTime();
+          System.arraycopy(state, 0, from, 0, state.length);
+          while (i < animations.size() && animations.get(i).getStartTime() == start
+                  && animations.get(i).getEndTime() == end) {
+            applyAnimation(animations.get(i), from, state);
+            i++;
+          }
+          putMotion(out, channel, index, start, from, end, state);
+        }
+      }
+      drain(out, channel);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Scene could not be written.");
+    }
+  }
+
+  /**
+   * Writes the model to the named file in the binary scene format, replacing any existing file.
+   *
+   * @param model the model to write
+   * @param file  the file to write to
+   * @throws IllegalArgumentException if the scene could not be written
+   */
+  public static void writeFile(IAnimationModel model, Path file) throws IllegalArgumentException {
+    Objects.requireNonNull(file);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      write(model, channel);
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Scene could not be written.");
+    }
+  }
+
+  /**
+   * Counts the motions a list of animations is written as, one for each run of animations that
+   * share their start and end time.
+   */
+  private static int countMotions(List<IAnimation> animations) {
+    int count = 0;
+    for (int i = 0; i < animations.size(); i++) {
+      if (i == 0 || animations.get(i).getStartTime() != animations.get(i - 1).getStartTime()
+              || animations.get(i).getEndTime() != animations.get(i - 1).getEndTime()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Updates the initial and final state of a motion with one of the animations it is made of.
+   */
+  private static void applyAnimation(IAnimation animation, int[] from, int[] to) {
+    switch (animation.getType()) {
+      case Move:
+        Move move = (Move) animation;
+        from[0] = (int) Math.round(move.getInitialPosition().getX());
+        from[1] = (int) Math.round(move.getInitialPosition().getY());
+        to[0] = (int) Math.round(move.getFinalPosition().getX());
+        to[1] = (int) Math.round(move.getFinalPosition().getY());
+        break;
+      case Scale:
+        Scale scale = (Scale) animation;
+        from[2] = (int) Math.round(scale.getInitialSizeArg1());
+        from[3] = (int) Math.round(scale.getInitialSizeArg2());
+        to[2] = (int) Math.round(scale.getInitialSizeArg1() + scale.getDeltaX());
+        to[3] = (int) Math.round(scale.getInitialSizeArg2() + scale.getDeltaY());
+        break;
+      case Color:
+        ColorChange colorChange = (ColorChange) animation;
+        from[4] = (int) Math.round(colorChange.getInitialColor().getRed());
+        from[5] = (int) Math.round(colorChange.getInitialColor().getGreen());
+        from[6] = (int) Math.round(colorChange.getInitialColor().getBlue());
+        to[4] = (int) Math.round(colorChange.getColor().getRed());
+        to[5] = (int) Math.round(colorChange.getColor().getGreen());
+        to[6] = (int) Math.round(colorChange.getColor().getBlue());
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Writes one fixed-width motion record.
+   */
+  private static void putMotion(ByteBuffer out, WritableByteChannel channel, int shape,
+                                int startTime, int[] from, int endTime, int[] to)
+          throws IOException {
+    if (out.remaining() < BinaryAnimationReader.MOTION_RECORD_SIZE) {
+      drain(out, channel);
+    }
+    out.putInt(shape);
+    out.putInt(startTime);
+    for (int value : from) {
+      out.putInt(value);
+    }
+    out.putInt(endTime);
+    for (int value : to) {
+      out.putInt(value);
+    }
+  }
+
+  /**
+   * Writes everything in the buffer to the channel and clears it.
+   */
+  private static void drain(ByteBuffer out, WritableByteChannel channel) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+}
@@ -0,0 +1,34 @@
+package util;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This interface represents an animation builder that can build parts of its document from
+ * separate chunks of an animation file at the same time. Each chunk is read into a builder of its
+ * own, made by {@link #newChunk}, on a pool thread; the chunks are then merged into this builder
+ * in file order. The document built must be the one a sequential read of the file would give.
+ *
+ * @param <Doc>   document to be inputted to run the animation
+ * @param <Chunk> the builder that a single chunk of the file is read into
+ */
+public interface ChunkedAnimationBuilder<Doc, Chunk extends AnimationBuilder<?>>
+        extends AnimationBuilder<Doc> {
+  /**
+   * Makes an empty builder for one chunk of the file. It is filled on a single pool thread, while
+   * other chunks are being filled on other threads.
+   *
+   * @return a builder for one chunk
+   */
+  Chunk newChunk();
+
+  /**
+   * Merges the given chunks into this builder, as if the calls made to them had been made to this
+   * builder one chunk after another. If one of those calls would have failed, the error raised is
+   * the one the first failing call, in file order, would have raised.
+   *
+   * @param chunks the chunks to merge, in file order
+   * @param pool   the pool that may be used to merge the chunks
+   */
+  void mergeChunks(List<Chunk> chunks, ForkJoinPool pool);
+}
@@ -56,9 +56,18 @@ public class Color {
    * @return a string description of the color.
    */
   public String getRGBString() {
-    return String.format("(%d,%d,%d)",
-            Math.round(this.getRed()),
-            Math.round(this.getGreen()),
-            Math.round(this.getBlue()));
+    return appendRGBString(new StringBuilder(16)).toString();
+  }
+
+  /**
+   * Appends the red, blue and green color values in the same form as {@link #getRGBString()}.
+   *
+   * @param out - the builder the color is appended to.
+   * @return the builder.
+   */
+  public StringBuilder appendRGBString(StringBuilder out) {
+    return out.append('(').append(Math.round(this.getRed()))
+            .append(',').append(Math.round(this.getGreen()))
+            .append(',').append(Math.round(this.getBlue())).append(')');
   }
 }
@@ -0,0 +1,72 @@
+package util;
+
+import java.text.DecimalFormatSymbols;
+
+/**
+ * A helper to append numbers to a StringBuilder exactly as {@link String#format} would, without
+ * parsing a format string or boxing the arguments on every call. Doubles formatted with {@code %s}
+ * and integers formatted with {@code %d} are already appended identically by StringBuilder itself;
+ * this class covers the fixed-point {@code %.2f} format.
+ */
+public final class FastFormat {
+  private static final boolean DOT_DECIMAL_SEPARATOR =
+          DecimalFormatSymbols.getInstance().getDecimalSeparator() == '.';
+
+  private FastFormat() {
+  }
+
+  /**
+   * Appends a double rounded to two decimals, the same text as {@code String.format("%.2f",
+   * value)}. Like the formatter, it rounds half up on the decimal digits of
+   * {@link Double#toString}.
+   *
+   * @param out   the builder to append to
+   * @param value the value to append
+   * @return the builder
+   */
+  public static StringBuilder appendFixed2(StringBuilder out, double value) {
+    double magnitude = Math.abs(value);
+    if (!DOT_DECIMAL_SEPARATOR || !(magnitude < 1e7) || (magnitude != 0 && magnitude < 1e-3)) {
+      // Double.toString uses scientific notation outside this range, and other locales use a
+      // different separator; leave those to the formatter.
+      return out.append(String.format("%.2f", value));
+    }
+    String digits = Double.toString(magnitude);
+    int point = digits.indexOf('.');
+    int start = out.length();
+    if (Double.doubleToRawLongBits(value) < 0) {
+      out.append('-');
+      start++;
+    }
+    out.append(digits, 0, point);
+    out.append('.');
+    int fraction = digits.length() - point - 1;
+    out.append(fraction > 0 ? digits.charAt(point + 1) : '0');
+    out.append(fraction > 1 ? digits.charAt(point + 2) : '0');
+    if (fraction > 2 && digits.charAt(point + 3) >= '5') {
+      roundUp(out, start);
+    }
+    return out;
+  }
+
+  /**
+   * Adds one to the last digit of the number that starts at the given index, carrying as needed.
+   */
+  private static void roundUp(StringBuilder out, int start) {
+    int at = out.length() - 1;
+    while (at >= start) {
+      char digit = out.charAt(at);
+      if (digit == '.') {
+        at--;
+        continue;
+      }
+      if (digit != '9') {
+        out.setCharAt(at, (char) (digit + 1));
+        return;
+      }
+      out.setCharAt(at, '0');
+      at--;
+    }
+    out.insert(start, '1');
+  }
+}
@@ -0,0 +1,396 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * This class generates synthetic animations of any size for benchmarks and stress tests. A scene
+ * is made of shapes that each follow a chain of motions: every motion moves the shape and may also
+ * change its color or its size, the way the animation files describe them. The scene is generated
+ * from a seed, so the same settings always give the same scene, and it is either fed straight to an
+ * {@link AnimationBuilder} or written in the format that {@link AnimationReader} reads.
+ *
+ * <p>
+ * The degree of overlap decides how far shapes roam. Each shape has a home cell in a grid that
+ * divides the canvas into as many cells as there are shapes; with no overlap a shape stays inside
+ * its cell, so no two shapes ever overlap as long as the cells are at least a pixel wide, and with
+ * full overlap every shape may go anywhere on the canvas and grows with the area it roams.
+ * </p>
+ */
+public class SceneGenerator {
+  private final long seed;
+  private int shapeCount;
+  private int motionsPerShape;
+  private int firstTick;
+  private int lastTick;
+  private double colorShare;
+  private double scaleShare;
+  private double overlap;
+  private int canvasX;
+  private int canvasY;
+  private int canvasWidth;
+  private int canvasHeight;
+
+  /**
+   * Constructs a generator with the given seed and default settings: 100 shapes of 10 motions
+   * each between tick 1 and tick 1000, a third of the motions changing color and a third changing
+   * size, a little overlap and an 800 by 800 canvas at the origin.
+   *
+   * @param seed the seed of the scene
+   */
+  public SceneGenerator(long seed) {
+    this.seed = seed;
+    this.shapeCount = 100;
+    this.motionsPerShape = 10;
+    this.firstTick = 1;
+    this.lastTick = 1000;
+    this.colorShare = 1.0 / 3;
+    this.scaleShare = 1.0 / 3;
+    this.overlap = 0.1;
+    this.canvasX = 0;
+    this.canvasY = 0;
+    this.canvasWidth = 800;
+    this.canvasHeight = 800;
+  }
+
+  /**
+   * Sets the number of shapes in the scene.
+   *
+   * @param shapeCount the number of shapes
+   * @return this generator
+   * @throws IllegalArgumentException if the number is negative
+   */
+  public SceneGenerator setShapeCount(int shapeCount) {
+    if (shapeCount < 0) {
+      throw new IllegalArgumentException("Shape count cannot be negative.");
+    }
+    this.shapeCount = shapeCount;
+    return this;
+  }
+
+  /**
+   * Sets the number of motions of every shape. The first motion of a shape places it and the
+   * others animate it.
+   *
+   * @param motionsPerShape the number of motions per shape
+   * @return this generator
+   * @throws IllegalArgumentException if the number is not positive
+   */
+  public SceneGenerator setMotionsPerShape(int motionsPerShape) {
+    if (motionsPerShape < 1) {
+      throw new IllegalArgumentException("Every shape needs at least one motion.");
+    }
+    this.motionsPerShape = motionsPerShape;
+    return this;
+  }
+
+  /**
+   * Sets the range of ticks the motions fall in. Every shape spends a random part of the range on
+   * screen, and its motions divide that part between them.
+   *
+   * @param firstTick the first tick a shape may appear at
+   * @param lastTick  the last tick a motion may end at
+   * @return this generator
+   * @throws IllegalArgumentException if the first tick is negative or after the last tick
+   */
+  public SceneGenerator setTickRange(int firstTick, int lastTick) {
+    if (firstTick < 0 || lastTick < firstTick) {
+      throw new IllegalArgumentException("Invalid tick range.");
+    }
+    this.firstTick = firstTick;
+    this.lastTick = lastTick;
+    return this;
+  }
+
+  /**
+   * Sets the share of motions that change the color of a shape and the share that change its
+   * size. A motion does at most one of the two, besides moving the shape.
+   *
+   * @param colorShare the share of color changes, from 0 to 1
+   * @param scaleShare the share of size changes, from 0 to 1
+   * @return this generator
+   * @throws IllegalArgumentException if a share is negative or the two add up to more than 1
+   */
+  public SceneGenerator setChangeShares(double colorShare, double scaleShare) {
+    if (!(colorShare >= 0 && scaleShare >= 0 && colorShare + scaleShare <= 1)) {
+      throw new IllegalArgumentException(
+              "Shares must be between 0 and 1 and add up to at most 1.");
+    }
+    this.colorShare = colorShare;
+    this.scaleShare = scaleShare;
+    return this;
+  }
+
+  /**
+   * Sets the degree of overlap between shapes, from none to every shape roaming the whole canvas.
+   *
+   * @param overlap the degree of overlap, from 0 to 1
+   * @return this generator
+   * @throws IllegalArgumentException if the degree is not between 0 and 1
+   */
+  public SceneGenerator setOverlap(double overlap) {
+    if (!(overlap >= 0 && overlap <= 1)) {
+      throw new IllegalArgumentException("Overlap must be between 0 and 1.");
+    }
+    this.overlap = overlap;
+    return this;
+  }
+
+  /**
+   * Sets the canvas of the scene.
+   *
+   * @param x      the left edge of the canvas
+   * @param y      the top edge of the canvas
+   * @param width  the width of the canvas
+   * @param height the height of the canvas
+   * @return this generator
+   * @throws IllegalArgumentException if the width or height is not positive
+   */
+  public SceneGenerator setCanvas(int x, int y, int width, int height) {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("Canvas must have a positive width and height.");
+    }
+    this.canvasX = x;
+    this.canvasY = y;
+    this.canvasWidth = width;
+    this.canvasHeight = height;
+    return this;
+  }
+
+  /**
+   * Returns the number of motions the scene has.
+   *
+   * @return the number of shapes times the number of motions per shape
+   */
+  public long getMotionCount() {
+    return (long) this.shapeCount * this.motionsPerShape;
+  }
+
+  /**
+   * Generates the scene into the given builder and returns what it builds.
+   *
+   * @param builder the builder of the document
+   * @param <Doc>   the type of the document
+   * @return the document built by the builder
+   */
+  public <Doc> Doc generate(AnimationBuilder<Doc> builder) {
+    Random random = new Random(this.seed);
+    int columns = (int) Math.ceil(Math.sqrt(Math.max(1, this.shapeCount)));
+    int rows = (Math.max(1, this.shapeCount) + columns - 1) / columns;
+    double cellWidth = (double) this.canvasWidth / columns;
+    double cellHeight = (double) this.canvasHeight / rows;
+    // the area a shape roams grows from its cell to the whole canvas
+    int areaWidth = Math.max(1, (int) (cellWidth + this.overlap * (this.canvasWidth - cellWidth)));
+    int areaHeight = Math.max(1,
+            (int) (cellHeight + this.overlap * (this.canvasHeight - cellHeight)));
+    int[] from = new int[8];
+    int[] to = new int[8];
+
+    builder.setBounds(this.canvasX, this.canvasY, this.canvasWidth, this.canvasHeight);
+    for (int i = 0; i < this.shapeCount; i++) {
+      String name = "S" + i;
+      builder.declareShape(name, random.nextBoolean() ? "rectangle" : "ellipse");
+
+      double centerX = this.canvasX + (i % columns + 0.5) * cellWidth;
+      double centerY = this.canvasY + (i / columns + 0.5) * cellHeight;
+      int areaX = clamp((int) (centerX - areaWidth / 2.0), this.canvasX,
+              this.canvasX + this.canvasWidth - areaWidth);
+      int areaY = clamp((int) (centerY - areaHeight / 2.0), this.canvasY,
+              this.canvasY + this.canvasHeight - areaHeight);
+
+      int steps = this.motionsPerShape;
+      int range = this.lastTick - this.firstTick;
+      int length = Math.min(range, steps + random.nextInt(range + 1));
+      int start = this.firstTick + random.nextInt(range - length + 1);
+      to[0] = start;
+      to[3] = randomSize(random, areaWidth, 1);
+      to[4] = randomSize(random, areaHeight, 1);
+      to[1] = areaX + random.nextInt(areaWidth - to[3] + 1);
+      to[2] = areaY + random.nextInt(areaHeight - to[4] + 1);
+      to[5] = random.nextInt(256);
+      to[6] = random.nextInt(256);
+      to[7] = random.nextInt(256);
+      int firstWidth = to[3];
+      int firstHeight = to[4];
+      for (int step = 0; step < steps; step++) {
+        System.arraycopy(to, 0, from, 0, 8);
+        if (step > 0) {
+          to[0] = start + (int) ((long) length * step / (steps - 1));
+          double kind = random.nextDouble();
+          if (kind < this.colorShare) {
+            to[5] = random.nextInt(256);
+            to[6] = random.nextInt(256);
+            to[7] = random.nextInt(256);
+          } else if (kind < this.colorShare + this.scaleShare) {
+            // a size change is described from the first size of the shape, which it may not
+            // shrink past
+            to[3] = randomSize(random, areaWidth, from[3] - firstWidth + 1);
+            to[4] = randomSize(random, areaHeight, from[4] - firstHeight + 1);
+          }
+          // the whole shape stays inside its area, also while it moves and changes size
+          to[1] = areaX + random.nextInt(areaWidth - to[3] + 1);
+          to[2] = areaY + random.nextInt(areaHeight - to[4] + 1);
+        }
+        builder.addMotion(name, from[0], from[1], from[2], from[3], from[4], from[5], from[6],
+                from[7], to[0], to[1], to[2], to[3], to[4], to[5], to[6], to[7]);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Writes the scene to the output in the format of the animation files, one line per canvas,
+   * shape and motion.
+   *
+   * @param out the output the scene is written to
+   * @throws IOException if the output cannot be written
+   */
+  public void write(Appendable out) throws IOException {
+    try {
+      generate(new TextWriter(out));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Writes a scene to a file or to standard output. The arguments are pairs of an option and its
+   * value: "-seed", "-shapes", "-motions", "-first", "-last", "-color", "-scale", "-overlap" and
+   * "-out" for the file, which is standard output if it is left out.
+   *
+   * @param args the options
+   * @throws IOException if the scene cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    long seed = 0;
+    String out = null;
+    int shapes = 100;
+    int motions = 10;
+    int first = 1;
+    int last = 1000;
+    double color = 1.0 / 3;
+    double scale = 1.0 / 3;
+    double overlap = 0.1;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "-seed":
+          seed = Long.parseLong(value);
+          break;
+        case "-shapes":
+          shapes = Integer.parseInt(value);
+          break;
+        case "-motions":
+          motions = Integer.parseInt(value);
+          break;
+        case "-first":
+          first = Integer.parseInt(value);
+          break;
+        case "-last":
+          last = Integer.parseInt(value);
+          break;
+        case "-color":
+          color = Double.parseDouble(value);
+          break;
+        case "-scale":
+          scale = Double.parseDouble(value);
+          break;
+        case "-overlap":
+          overlap = Double.parseDouble(value);
+          break;
+        case "-out":
+          out = value;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option: " + args[i]);
+      }
+    }
+    SceneGenerator generator = new SceneGenerator(seed).setShapeCount(shapes)
+            .setMotionsPerShape(motions).setTickRange(first, last)
+            .setChangeShares(color, scale).setOverlap(overlap);
+    try (Writer writer = out == null
+            ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8),
+            1 << 16)
+            : Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8)) {
+      generator.write(writer);
+    }
+  }
+
+  /**
+   * Returns a size between a sixteenth and a quarter of the extent of the area a shape roams, and
+   * at least the given minimum, which must not be more than a quarter of the extent or the size
+   * of the shape before.
+   */
+  private static int randomSize(Random random, int extent, int minimum) {
+    int high = Math.max(Math.max(1, extent / 16), extent / 4);
+    int low = Math.min(high, Math.max(minimum, Math.max(1, extent / 16)));
+    return low + random.nextInt(high - low + 1);
+  }
+
+  private static int clamp(int value, int low, int high) {
+    return Math.max(low, Math.min(high, value));
+  }
+
+  /**
+   * An animation builder that writes the calls made to it as the lines of an animation file.
+   */
+  private static final class TextWriter implements AnimationBuilder<Void> {
+    private final Appendable out;
+    private final StringBuilder line;
+
+    private TextWriter(Appendable out) {
+      this.out = out;
+      this.line = new StringBuilder(128);
+    }
+
+    @Override
+    public Void build() {
+      return null;
+    }
+
+    @Override
+    public AnimationBuilder<Void> setBounds(int x, int y, int width, int height) {
+      this.line.append("canvas ").append(x).append(' ').append(y).append(' ').append(width)
+              .append(' ').append(height).append('\n');
+      return writeLine();
+    }
+
+    @Override
+    public AnimationBuilder<Void> declareShape(String name, String type) {
+      this.line.append("shape ").append(name).append(' ').append(type).append('\n');
+      return writeLine();
+    }
+
+    @Override
+    public AnimationBuilder<Void> addMotion(String name, int t1, int x1, int y1, int w1, int h1,
+                                            int r1, int g1, int b1, int t2, int x2, int y2,
+                                            int w2, int h2, int r2, int g2, int b2) {
+      this.line.append("motion ").append(name)
+              .append(' ').append(t1).append(' ').append(x1).append(' ').append(y1)
+              .append(' ').append(w1).append(' ').append(h1)
+              .append(' ').append(r1).append(' ').append(g1).append(' ').append(b1)
+              .append("  ").append(t2).append(' ').append(x2).append(' ').append(y2)
+              .append(' ').append(w2).append(' ').append(h2)
+              .append(' ').append(r2).append(' ').append(g2).append(' ').append(b2)
+              .append('\n');
+      return writeLine();
+    }
+
+    private AnimationBuilder<Void> writeLine() {
+      try {
+        this.out.append(this.line);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      this.line.setLength(0);
+      return this;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package view;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * This class keeps the color objects a renderer draws with, keyed by their packed RGB value, so
+ * that drawing a frame does not create a color object per shape. The colors are kept in an open
+ * addressing hash table of fixed capacity that is emptied when it gets half full, which bounds the
+ * memory it takes for animations that fade through many colors.
+ */
+public class ColorCache {
+  private static final int CAPACITY = 4096;
+
+  private final int[] keys;
+  private final Color[] colors;
+  private int size;
+
+  /**
+   * Constructs an empty color cache.
+   */
+  public ColorCache() {
+    this.keys = new int[CAPACITY];
+    this.colors = new Color[CAPACITY];
+  }
+
+  /**
+   * Returns the opaque color of the given packed RGB value, creating it the first time it is asked
+   * for. The alpha byte of the value is ignored.
+   *
+   * @param rgb the color, with red in bits 16 to 23, green in bits 8 to 15 and blue in bits 0 to 7
+   * @return the color object
+   */
+  public Color get(int rgb) {
+    int key = rgb & 0xFFFFFF;
+    int at = slot(key);
+    while (this.colors[at] != null) {
+      if (this.keys[at] == key) {
+        return this.colors[at];
+      }
+      at = (at + 1) & (CAPACITY - 1);
+    }
+    if (this.size == CAPACITY / 2) {
+      clear();
+      at = slot(key);
+    }
+    Color color = new Color(key);
+    this.keys[at] = key;
+    this.colors[at] = color;
+    this.size++;
+    return color;
+  }
+
+  /**
+   * Returns the number of colors in the cache.
+   *
+   * @return the number of colors
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Empties the cache.
+   */
+  public void clear() {
+    Arrays.fill(this.colors, null);
+    this.size = 0;
+  }
+
+  private static int slot(int key) {
+    int hash = key * 0x9E3779B1;
+    return (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+  }
+}
@@ -0,0 +1,131 @@
+package view;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+import model.FrameBuffer;
+
+/**
+ * This class keeps track of what a panel shows, shape by shape, so that moving on to the next
+ * frame only repaints the region that changed. For every shape on screen it remembers the box it
+ * was drawn in and its color; comparing a new frame against that gives the union of the old and new
+ * boxes of the shapes that moved, changed size or color, appeared or disappeared. Both the shapes
+ * shown and the shapes of the new frame are kept in drawing order, so the comparison is one pass
+ * over the two lists.
+ */
+public class DirtyRegion {
+  private int[] boxes;
+  private int[] colors;
+  private int[] shown;
+  private int shownCount;
+  private int[] next;
+
+  /**
+   * Constructs a dirty region for a panel that shows nothing yet.
+   */
+  public DirtyRegion() {
+    this.boxes = new int[0];
+    this.colors = new int[0];
+    this.shown = new int[16];
+    this.next = new int[16];
+  }
+
+  /**
+   * Forgets what is shown, for example after the whole panel has been repainted with a different
+   * model.
+   */
+  public void clear() {
+    this.shownCount = 0;
+  }
+
+  /**
+   * Records the active shapes of a frame as shown and returns the region of the panel that has to
+   * be repainted to show it, or null if nothing changed.
+   *
+   * @param frame the frame that is shown next
+   * @return the region that changed, or null
+   */
+  public Rectangle update(FrameBuffer frame) {
+    if (this.colors.length < frame.getSize()) {
+      int capacity = Math.max(frame.getSize(), 2 * this.colors.length);
+      this.boxes = Arrays.copyOf(this.boxes, 4 * capacity);
+      this.colors = Arrays.copyOf(this.colors, capacity);
+    }
+    if (this.next.length < frame.getActiveCount()) {
+      this.next = new int[Math.max(frame.getActiveCount(), 2 * this.next.length)];
+    }
+
+    Rectangle dirty = null;
+    int nextCount = 0;
+    int s = 0;
+    int position = 0;
+    while (s < this.shownCount || position < frame.getActiveCount()) {
+      int old = s < this.shownCount ? this.shown[s] : Integer.MAX_VALUE;
+      int now = Integer.MAX_VALUE;
+      while (position < frame.getActiveCount()) {
+        int candidate = frame.getActive(position);
+        if (frame.isVisible(candidate) && candidate < frame.getSize()) {
+          now = candidate;
+          break;
+        }
+        position++;
+      }
+      if (old == Integer.MAX_VALUE && now == Integer.MAX_VALUE) {
+        break;
+      }
+      if (old < now) {
+        // no longer on screen
+        dirty = add(dirty, old);
+        s++;
+        continue;
+      }
+      int x = (int) frame.getX(now);
+      int y = (int) frame.getY(now);
+      int width = (int) frame.getWidth(now);
+      int height = (int) frame.getHeight(now);
+      int rgb = frame.getRgb(now);
+      int at = 4 * now;
+      if (old == now) {
+        s++;
+        if (this.boxes[at] != x || this.boxes[at + 1] != y || this.boxes[at + 2] != width
+                || this.boxes[at + 3] != height || this.colors[now] != rgb) {
+          dirty = add(dirty, now);
+          dirty = add(dirty, x, y, width, height);
+        }
+      } else {
+        dirty = add(dirty, x, y, width, height);
+      }
+      this.boxes[at] = x;
+      this.boxes[at + 1] = y;
+      this.boxes[at + 2] = width;
+      this.boxes[at + 3] = height;
+      this.colors[now] = rgb;
+      this.next[nextCount++] = now;
+      position++;
+    }
+
+    int[] swap = this.shown;
+    this.shown = this.next;
+    this.next = swap;
+    this.shownCount = nextCount;
+    return dirty;
+  }
+
+  private Rectangle add(Rectangle dirty, int index) {
+    int at = 4 * index;
+    return add(dirty, this.boxes[at], this.boxes[at + 1], this.boxes[at + 2],
+            this.boxes[at + 3]);
+  }
+
+  private static Rectangle add(Rectangle dirty, int x, int y, int width, int height) {
+    if (width <= 0 || height <= 0) {
+      return dirty;
+    }
+    if (dirty == null) {
+      return new Rectangle(x, y, width, height);
+    }
+    dirty.add(x, y);
+    dirty.add(x + width, y + height);
+    return dirty;
+  }
+}
@@ -0,0 +1,236 @@
+package view;
+
+import java.awt.Rectangle;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import model.FrameBuffer;
+import model.IAnimationModel;
+import model.ShapeSchedule;
+import model.SpatialGrid;
+
+/**
+ * This class evaluates the frames of an animation for a view off the thread that draws them. The
+ * shapes of a frame are split into slices that are evaluated in parallel on a fork-join pool, and
+ * while one frame is being drawn the next one is already evaluated into a second frame buffer, so
+ * that the drawing thread normally finds the frame it asks for finished and only has to draw it.
+ * Only the shapes on screen at a tick are evaluated: a {@link ShapeSchedule} of the model is moved
+ * along with the ticks and lists them in the active list of the frame buffer. When the viewport
+ * the frame is drawn in does not take in the whole canvas, a {@link SpatialGrid} of the model
+ * narrows that list down to the shapes that may overlap the viewport.
+ */
+public class FrameEvaluator {
+  private static final int SLICE = 4096;
+
+  private final ForkJoinPool pool;
+  private IAnimationModel model;
+  private ShapeSchedule schedule;
+  private SpatialGrid grid;
+  private Rectangle canvas;
+  private FrameBuffer front;
+  private FrameBuffer back;
+  private boolean frontValid;
+  private boolean backValid;
+  private Rectangle frontViewport;
+  private Rectangle backViewport;
+  private ForkJoinTask<?> pending;
+  private long modelVersion;
+
+  /**
+   * Constructs a frame evaluator that uses the common fork-join pool.
+   */
+  public FrameEvaluator() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a frame evaluator that uses the given fork-join pool.
+   *
+   * @param pool the pool the frames are evaluated on
+   */
+  public FrameEvaluator(ForkJoinPool pool) {
+    this.pool = Objects.requireNonNull(pool);
+    this.front = new FrameBuffer();
+    this.back = new FrameBuffer();
+  }
+
+  /**
+   * Sets the model whose frames are evaluated, dropping any frame evaluated for the previous one.
+   * The model may still be filled afterwards, as the views are created before the animation file
+   * is read: the schedule, canvas and grid of the model are built when the first frame is asked
+   * for, and built again whenever the model has changed since, going by its modification count.
+   *
+   * @param model the animation model
+   */
+  public void setModel(IAnimationModel model) {
+    finishPending();
+    this.model = model;
+    this.schedule = null;
+    this.grid = null;
+    this.canvas = null;
+    this.frontValid = false;
+    this.backValid = false;
+  }
+
+  /**
+   * Builds the schedule, canvas and grid of the model if there are none yet or the model has
+   * changed since they were built, dropping the frames evaluated from the old ones.
+   */
+  private void refresh() {
+    long version = this.model.getModificationCount();
+    if (this.schedule != null && version == this.modelVersion) {
+      return;
+    }
+    this.modelVersion = version;
+    this.schedule = new ShapeSchedule(this.model.getModelShapes());
+    this.canvas = new Rectangle(this.model.getCanvasX(), this.model.getCanvasY(),
+            this.model.getCanvasWidth(), this.model.getCanvasHeight());
+    this.grid = new SpatialGrid(this.model.getModelShapes(), this.schedule, this.canvas.x,
+            this.canvas.y, this.canvas.width, this.canvas.height);
+    this.frontValid = false;
+    this.backValid = false;
+  }
+
+  /**
+   * Returns the frame at the given tick and starts evaluating the frame at the tick after it. The
+   * returned frame buffer stays untouched until the next call.
+   *
+   * @param tick the tick of the frame
+   * @return the frame buffer holding the state of every shape at the tick
+   */
+  public FrameBuffer frameAt(int tick) {
+    return frameAt(tick, null);
+  }
+
+  /**
+   * Returns the frame at the given tick for drawing in a viewport, and starts evaluating the frame
+   * at the tick after it for the same viewport. The active list of the returned frame buffer holds
+   * every shape on screen that may overlap the viewport; the returned frame buffer stays untouched
+   * until the next call.
+   *
+   * @param tick     the tick of the frame
+   * @param viewport the area the frame is drawn in, in canvas coordinates, or null for all of it
+   * @return the frame buffer holding the state of the shapes at the tick
+   */
+  public FrameBuffer frameAt(int tick, Rectangle viewport) {
+    return frameAt(tick, viewport, tick + 1);
+  }
+
+  /**
+   * Returns the frame at the given tick for drawing in a viewport, and starts evaluating the frame
+   * at the tick that is expected to be asked for next, unless that is the same tick. A view that
+   * plays by a clock passes the tick due at its next frame, which may skip ticks at high speeds.
+   *
+   * @param tick     the tick of the frame
+   * @param viewport the area the frame is drawn in, in canvas coordinates, or null for all of it
+   * @param nextTick the tick of the frame expected next
+   * @return the frame buffer holding the state of the shapes at the tick
+   */
+  public FrameBuffer frameAt(int tick, Rectangle viewport, int nextTick) {
+    finishPending();
+    refresh();
+    Rectangle area = viewport == null || viewport.contains(this.canvas) ? null
+            : new Rectangle(viewport);
+    if (!(this.frontValid && this.front.getTick() == tick
+            && Objects.equals(this.frontViewport, area))) {
+      if (this.backValid && this.back.getTick() == tick
+              && Objects.equals(this.backViewport, area)) {
+        FrameBuffer swap = this.front;
+        this.front = this.back;
+        this.back = swap;
+        this.frontViewport = this.backViewport;
+        this.backValid = false;
+      } else {
+        evaluate(tick, this.front, area);
+        this.frontViewport = area;
+      }
+      this.frontValid = true;
+    }
+    if (nextTick != tick && !(this.backValid && this.back.getTick() == nextTick
+            && Objects.equals(this.backViewport, area))) {
+      FrameBuffer target = this.back;
+      this.pending = this.pool.submit(() -> evaluate(nextTick, target, area));
+      this.backViewport = area;
+      this.backValid = true;
+    }
+    return this.front;
+  }
+
+  /**
+   * Waits for the frame that is being evaluated ahead, if any.
+   */
+  private void finishPending() {
+    if (this.pending != null) {
+      ForkJoinTask<?> task = this.pending;
+      this.pending = null;
+      try {
+        task.join();
+      } catch (RuntimeException ex) {
+        this.backValid = false;
+        throw ex;
+      }
+    }
+  }
+
+  /**
+   * Evaluates the shapes of the model on screen at a tick, and inside the viewport if there is
+   * one, into the frame buffer, in parallel slices if there are enough of them to make that
+   * worthwhile. The grid is only kept up to date while it is used.
+   */
+  private void evaluate(int tick, FrameBuffer frame, Rectangle viewport) {
+    this.schedule.advanceTo(tick);
+    if (viewport == null) {
+      this.grid.invalidate();
+      this.schedule.copyActiveTo(frame);
+    } else {
+      this.grid.advanceTo(tick);
+      this.grid.copyVisibleTo(frame, viewport.x, viewport.y, viewport.width, viewport.height);
+    }
+    int count = frame.getActiveCount();
+    if (count < 2 * SLICE || this.pool.getParallelism() < 2) {
+      this.model.evaluateActive(tick, frame, 0, count);
+      return;
+    }
+    Slice slice = new Slice(this.model, tick, frame, 0, count);
+    if (ForkJoinTask.inForkJoinPool()) {
+      slice.invoke();
+    } else {
+      this.pool.invoke(slice);
+    }
+  }
+
+  /**
+   * A range of the active list of a frame, split in halves until it is small enough to evaluate
+   * directly.
+   */
+  private static final class Slice extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final IAnimationModel model;
+    private final int tick;
+    private final FrameBuffer frame;
+    private final int from;
+    private final int to;
+
+    private Slice(IAnimationModel model, int tick, FrameBuffer frame, int from, int to) {
+      this.model = model;
+      this.tick = tick;
+      this.frame = frame;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from <= SLICE) {
+        this.model.evaluateActive(this.tick, this.frame, this.from, this.to);
+        return;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      invokeAll(new Slice(this.model, this.tick, this.frame, this.from, middle),
+              new Slice(this.model, this.tick, this.frame, middle, this.to));
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
+import model.FrameBuffer;
+import model.IAnimationModel;
+
+/**
+ * This class exports the frames of an animation through a pipeline of three stages. Frames are
+ * evaluated and drawn on a pool of render threads, encoded on a separate, bounded pool of encode
+ * threads, and handed to a sink on the calling thread strictly in tick order: frames that finish
+ * early wait in a reorder buffer until every frame before them has been written.
+ *
+ * <p>
+ * The number of frames in flight, from the moment their rendering is started until they have been
+ * written, is capped. Each of them holds one image and one encoded frame at most, which bounds the
+ * memory used, and no new frame is started while the cap is reached, so a slow sink holds back the
+ * render and encode stages instead of letting finished frames pile up.
+ * </p>
+ */
+public class FrameExportPipeline {
+
+  /**
+   * The encodings a frame can be exported in.
+   */
+  public enum Format {
+    /**
+     * A PNG image.
+     */
+    PNG,
+    /**
+     * Raw pixels, three bytes (red, green, blue) per pixel, row by row.
+     */
+    RAW
+  }
+
+  /**
+   * A destination for encoded frames, which receives them in tick order.
+   */
+  public interface FrameSink {
+
+    /**
+     * Writes one encoded frame.
+     *
+     * @param tick the tick of the frame
+     * @param data the encoded frame
+     * @throws IOException if the frame could not be written
+     */
+    void write(int tick, byte[] data) throws IOException;
+  }
+
+  private final int renderThreads;
+  private final int encodeThreads;
+  private final int maxInFlight;
+
+  /**
+   * Constructs a pipeline with one render and one encode thread per processor, and twice as many
+   * frames in flight as there are threads.
+   */
+  public FrameExportPipeline() {
+    this(Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+            4 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a pipeline with the given number of threads and frames in flight.
+   *
+   * @param renderThreads the number of threads evaluating and drawing frames
+   * @param encodeThreads the number of threads encoding frames
+   * @param maxInFlight   the largest number of frames started but not yet written
+   * @throws IllegalArgumentException if any of the numbers is not positive
+   */
+  public FrameExportPipeline(int renderThreads, int encodeThreads, int maxInFlight)
+          throws IllegalArgumentException {
+    if (renderThreads < 1 || encodeThreads < 1 || maxInFlight < 1) {
+      throw new IllegalArgumentException("Thread and frame counts have to be positive");
+    }
+    this.renderThreads = renderThreads;
+    this.encodeThreads = encodeThreads;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Renders the frames of the animation for every tick in the given range, encodes them and
+   * passes them to the sink in tick order. The model must not change during the export.
+   *
+   * @param model    the animation model
+   * @param fromTick the first tick to export
+   * @param toTick   the last tick to export
+   * @param format   the encoding of the frames
+   * @param sink     the destination of the encoded frames
+   * @throws IOException if a frame could not be encoded or written
+   * @throws Error        if an error, such as running out of memory, was thrown while a frame was
+   *                      rendered or encoded
+   */
+  public void export(IAnimationModel model, int fromTick, int toTick, Format format,
+                     FrameSink sink) throws IOException {
+    Objects.requireNonNull(model);
+    Objects.requireNonNull(format);
+    Objects.requireNonNull(sink);
+    ConcurrentLinkedQueue<Canvas> canvases = new ConcurrentLinkedQueue<>();
+    ReorderBuffer reorder = new ReorderBuffer(this.maxInFlight);
+    Semaphore inFlight = new Semaphore(this.maxInFlight);
+    ExecutorService render = newPool(this.renderThreads, "render");
+    ExecutorService encode = newPool(this.encodeThreads, "encode");
+    try {
+      int next = fromTick;
+      for (int tick = fromTick; tick <= toTick; tick++) {
+        while (next <= toTick && inFlight.tryAcquire()) {
+          int frameTick = next++;
+          render.execute(() -> {
+            try {
+              Canvas canvas = canvases.poll();
+              if (canvas == null) {
+                canvas = new Canvas(model);
+              }
+              canvas.render(frameTick);
+              Canvas drawn = canvas;
+              encode.execute(() -> {
+                try {
+                  reorder.put(frameTick, drawn.encode(format), null);
+                } catch (Throwable ex) {
+                  reorder.put(frameTick, null, ex);
+                } finally {
+                  canvases.add(drawn);
+                }
+              });
+            } catch (Throwable ex) {
+              // errors too, or the frame would never be written and the export would wait forever
+              reorder.put(frameTick, null, ex);
+            }
+          });
+        }
+        sink.write(tick, reorder.take(tick));
+        inFlight.release();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Export was interrupted");
+    } finally {
+      render.shutdownNow();
+      encode.shutdownNow();
+    }
+  }
+
+  /**
+   * Creates a pool of daemon threads. Its queue can hold every frame in flight, so submitting a
+   * frame never has to wait.
+   */
+  private ExecutorService newPool(int threads, String name) {
+    return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(this.maxInFlight), runnable -> {
+              Thread thread = new Thread(runnable, "frame-export-" + name);
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * The frames that have been encoded but not yet written, indexed by tick modulo the number of
+   * frames in flight; since at most that many frames are in flight at once, no two share a slot.
+   */
+  private static final class ReorderBuffer {
+    private final byte[][] frames;
+    private final Throwable[] failures;
+    private final boolean[] ready;
+
+    private ReorderBuffer(int capacity) {
+      this.frames = new byte[capacity][];
+      this.failures = new Throwable[capacity];
+      this.ready = new boolean[capacity];
+    }
+
+    private synchronized void put(int tick, byte[] frame, Throwable failure) {
+      int slot = Math.floorMod(tick, this.frames.length);
+      this.frames[slot] = frame;
+      this.failures[slot] = failure;
+      this.ready[slot] = true;
+      notifyAll();
+    }
+
+    private synchronized byte[] take(int tick) throws InterruptedException, IOException {
+      int slot = Math.floorMod(tick, this.frames.length);
+      while (!this.ready[slot]) {
+        wait();
+      }
+      byte[] frame = this.frames[slot];
+      Throwable failure = this.failures[slot];
+      this.frames[slot] = null;
+      this.failures[slot] = null;
+      this.ready[slot] = false;
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      } else if (failure != null) {
+        throw new IllegalStateException("Frame could not be exported.", failure);
+      }
+      return frame;
+    }
+  }
+
+  /**
+   * An image frames are drawn into, with the state needed to draw one. Each canvas is used by one
+   * frame at a time and reused for later frames.
+   */
+  private static final class Canvas {
+    private final IAnimationModel model;
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private final FrameBuffer frame;
+    private final FrameRenderer renderer;
+    private final ByteArrayOutputStream encoded;
+
+    private Canvas(IAnimationModel model) {
+      this.model = model;
+      this.image = new BufferedImage(Math.max(1, model.getCanvasWidth()),
+              Math.max(1, model.getCanvasHeight()), BufferedImage.TYPE_INT_RGB);
+      this.graphics = this.image.createGraphics();
+      this.graphics.translate(-model.getCanvasX(), -model.getCanvasY());
+      this.graphics.clipRect(model.getCanvasX(), model.getCanvasY(), this.image.getWidth(),
+              this.image.getHeight());
+      this.frame = new FrameBuffer();
+      this.renderer = new FrameRenderer();
+      this.encoded = new ByteArrayOutputStream();
+    }
+
+    private void render(int tick) {
+      this.model.evaluateFrame(tick, this.frame);
+      this.graphics.setColor(Color.WHITE);
+      this.graphics.fillRect(this.model.getCanvasX(), this.model.getCanvasY(),
+              this.image.getWidth(), this.image.getHeight());
+      this.renderer.draw(this.graphics, this.model.getModelShapes(), this.frame);
+    }
+
+    private byte[] encode(Format format) throws IOException {
+      if (format == Format.RAW) {
+        int[] pixels = ((DataBufferInt) this.image.getRaster().getDataBuffer()).getData();
+        byte[] bytes = new byte[pixels.length * 3];
+        for (int i = 0, j = 0; i < pixels.length; i++, j += 3) {
+          int pixel = pixels[i];
+          bytes[j] = (byte) (pixel >> 16);
+          bytes[j + 1] = (byte) (pixel >> 8);
+          bytes[j + 2] = (byte) pixel;
+        }
+        return bytes;
+      }
+      this.encoded.reset();
+      try (ImageOutputStream out = new MemoryCacheImageOutputStream(this.encoded)) {
+        if (!ImageIO.write(this.image, "png", out)) {
+          throw new IOException("No PNG writer available");
+        }
+      }
+      return this.encoded.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.List;
+
+import model.FrameBuffer;
+import model.shapes.IShape2D;
+
+/**
+ * This class draws an evaluated frame of an animation onto a graphics object. It is shared by the
+ * on-screen panel and the offscreen view, so that both draw shapes the same way. Color objects are
+ * taken from a {@link ColorCache}, so drawing does not create one per shape, and the color of the
+ * graphics object is only set when it changes. Shapes that lie entirely outside the clip of the
+ * graphics object are skipped.
+ */
+public class FrameRenderer {
+  private final ColorCache colors = new ColorCache();
+
+  /**
+   * Draws the active shapes of a frame in the order of the shape list. Shapes that are not on
+   * screen at the tick of the frame are not touched, and shapes outside the clip are not drawn.
+   *
+   * @param graphics - the graphics object to draw on
+   * @param shapes   - the shapes of the model, in the order they were evaluated
+   * @param frame    - the state of the shapes at the tick being drawn
+   * @return the number of shapes drawn
+   */
+  public int draw(Graphics graphics, List<IShape2D> shapes, FrameBuffer frame) {
+    Rectangle clip = graphics.getClipBounds();
+    Color lastColor = null;
+    int drawn = 0;
+    for (int position = 0; position < frame.getActiveCount(); position++) {
+      int i = frame.getActive(position);
+      if (!frame.isVisible(i)) {
+        continue;
+      }
+      int x = (int) frame.getX(i);
+      int y = (int) frame.getY(i);
+      int width = (int) frame.getWidth(i);
+      int height = (int) frame.getHeight(i);
+      if (clip != null && (x >= clip.x + clip.width || y >= clip.y + clip.height
+              || x + width <= clip.x || y + height <= clip.y)) {
+        continue;
+      }
+      IShape2D shape = shapes.get(i);
+      int rgb = frame.getRgb(i);
+      Color color = colors.get(rgb);
+      if (color != lastColor) {
+        graphics.setColor(color);
+        lastColor = color;
+      }
+
+      switch (shape.getType()) {
+        case Rectangle:
+          graphics.fillRect(x, y, width, height);
+          break;
+        case Oval:
+          graphics.fillOval(x, y, width, height);
+          break;
+        default:
+          return drawn;
+      }
+      drawn++;
+    }
+    return drawn;
+  }
+}
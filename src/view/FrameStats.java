@@ -0,0 +1,326 @@
+package view;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class records statistics of the frames a panel shows: the time spent getting each frame
+ * evaluated and painting it, the shapes drawn and culled, the ticks dropped before it and the bytes
+ * the drawing thread allocated for it. The most recent frames are kept in a ring buffer that is
+ * written by the drawing thread alone and read without locks by any other thread, such as a JMX
+ * client: the writer fills a slot and then publishes it by moving the frame count on, and a reader
+ * copies the slots and drops those the writer may have overwritten meanwhile.
+ *
+ * <p>
+ * A frame is recorded from one call of {@link #startFrame} to the next, so the time and
+ * allocations of everything the drawing thread does in between, repaints included, count towards
+ * it. It is published when the next frame starts.
+ * </p>
+ */
+public class FrameStats implements FrameStatsMXBean {
+  /**
+   * The metric of the time spent getting a frame evaluated, in nanoseconds.
+   */
+  public static final int EVALUATE_NANOS = 0;
+  /**
+   * The metric of the time spent painting a frame, in nanoseconds.
+   */
+  public static final int PAINT_NANOS = 1;
+  /**
+   * The metric of the number of shapes drawn.
+   */
+  public static final int SHAPES_DRAWN = 2;
+  /**
+   * The metric of the number of shapes considered but not drawn.
+   */
+  public static final int SHAPES_CULLED = 3;
+  /**
+   * The metric of the number of ticks dropped before a frame.
+   */
+  public static final int DROPPED_TICKS = 4;
+  /**
+   * The metric of the bytes allocated by the drawing thread, or -1 if they are not measured.
+   */
+  public static final int ALLOCATED_BYTES = 5;
+
+  private static final int METRICS = 6;
+  private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+  private final int kept;
+  private final int capacity;
+  private final long[] slots;
+  private final AtomicLong written;
+  private final AtomicLong droppedTotal;
+  private volatile long resetAt;
+  private volatile long droppedAtReset;
+  private final com.sun.management.ThreadMXBean allocations;
+  private ObjectName name;
+
+  private boolean open;
+  private final long[] current;
+  private long startBytes;
+
+  /**
+   * Constructs statistics that keep the last 1024 frames.
+   */
+  public FrameStats() {
+    this(1024);
+  }
+
+  /**
+   * Constructs statistics that keep the given number of recent frames.
+   *
+   * @param frames the number of frames to keep
+   * @throws IllegalArgumentException if the number is not between 1 and 2^24
+   */
+  public FrameStats(int frames) {
+    if (frames < 1 || frames > 1 << 24) {
+      throw new IllegalArgumentException("Number of frames must be between 1 and 2^24.");
+    }
+    // one slot more than is kept, for the frame being written while the others are read
+    int capacity = 1;
+    while (capacity <= frames) {
+      capacity <<= 1;
+    }
+    this.kept = frames;
+    this.capacity = capacity;
+    this.slots = new long[this.capacity * METRICS];
+    this.written = new AtomicLong();
+    this.droppedTotal = new AtomicLong();
+    this.current = new long[METRICS];
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    com.sun.management.ThreadMXBean allocations = null;
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      allocations = (com.sun.management.ThreadMXBean) threads;
+      if (!allocations.isThreadAllocatedMemorySupported()) {
+        allocations = null;
+      } else if (!allocations.isThreadAllocatedMemoryEnabled()) {
+        allocations.setThreadAllocatedMemoryEnabled(true);
+      }
+    }
+    this.allocations = allocations;
+  }
+
+  /**
+   * Publishes the frame being recorded, if any, and starts recording the next one. Called by the
+   * drawing thread.
+   *
+   * @param droppedTicks the number of ticks that passed without being shown before this frame
+   */
+  public void startFrame(int droppedTicks) {
+    long bytes = allocatedBytes();
+    if (this.open) {
+      this.current[ALLOCATED_BYTES] = bytes < 0 ? -1 : bytes - this.startBytes;
+      long frame = this.written.get();
+      System.arraycopy(this.current, 0, this.slots,
+              (int) (frame & (this.capacity - 1)) * METRICS, METRICS);
+      this.written.lazySet(frame + 1);
+      this.droppedTotal.lazySet(this.droppedTotal.get() + this.current[DROPPED_TICKS]);
+    }
+    Arrays.fill(this.current, 0);
+    this.current[DROPPED_TICKS] = droppedTicks;
+    this.startBytes = bytes;
+    this.open = true;
+  }
+
+  /**
+   * Adds time spent getting the current frame evaluated. Called by the drawing thread.
+   *
+   * @param nanos the time in nanoseconds
+   */
+  public void addEvaluate(long nanos) {
+    this.current[EVALUATE_NANOS] += nanos;
+  }
+
+  /**
+   * Adds a paint of the current frame, which may be painted in several parts. Called by the
+   * drawing thread.
+   *
+   * @param nanos  the time the paint took in nanoseconds
+   * @param drawn  the number of shapes drawn
+   * @param culled the number of shapes considered but not drawn
+   */
+  public void addPaint(long nanos, int drawn, int culled) {
+    this.current[PAINT_NANOS] += nanos;
+    this.current[SHAPES_DRAWN] += drawn;
+    this.current[SHAPES_CULLED] += culled;
+  }
+
+  /**
+   * Returns a percentile of a metric over the recent frames, by the nearest rank, or 0 if no
+   * frame has been recorded.
+   *
+   * @param metric   the metric, one of the constants of this class
+   * @param fraction the percentile as a fraction, from 0 to 1
+   * @return the value of the metric at the percentile
+   * @throws IllegalArgumentException if the metric or fraction is not valid
+   */
+  public long percentile(int metric, double fraction) {
+    if (metric < 0 || metric >= METRICS || !(fraction >= 0 && fraction <= 1)) {
+      throw new IllegalArgumentException("Invalid metric or percentile.");
+    }
+    long[] values = snapshot(metric);
+    if (values.length == 0) {
+      return 0;
+    }
+    Arrays.sort(values);
+    int rank = (int) Math.ceil(fraction * values.length);
+    return values[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * Returns a one-line summary of the recent frames, as shown by the overlay of a panel.
+   *
+   * @return the summary
+   */
+  public String getSummary() {
+    StringBuilder text = new StringBuilder(96);
+    text.append("eval ");
+    appendMillis(text, percentile(EVALUATE_NANOS, 0.5));
+    text.append('/');
+    appendMillis(text, percentile(EVALUATE_NANOS, 0.99));
+    text.append(" ms  paint ");
+    appendMillis(text, percentile(PAINT_NANOS, 0.5));
+    text.append('/');
+    appendMillis(text, percentile(PAINT_NANOS, 0.99));
+    text.append(" ms  drawn ").append(percentile(SHAPES_DRAWN, 0.5))
+            .append("  culled ").append(percentile(SHAPES_CULLED, 0.5))
+            .append("  dropped ").append(getDroppedTicks());
+    long bytes = percentile(ALLOCATED_BYTES, 0.5);
+    if (bytes >= 0) {
+      text.append("  alloc ").append(bytes / 1024).append(" KB");
+    }
+    return text.toString();
+  }
+
+  /**
+   * Registers the statistics with the platform MBean server under a name of their own, in the
+   * easyanimator domain.
+   *
+   * @throws IllegalStateException if the statistics cannot be registered
+   */
+  public void register() {
+    try {
+      ObjectName name = new ObjectName("easyanimator:type=FrameStats,name=panel"
+              + INSTANCES.incrementAndGet());
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+      this.name = name;
+    } catch (JMException ex) {
+      throw new IllegalStateException("Frame statistics could not be registered.");
+    }
+  }
+
+  /**
+   * Removes the statistics from the platform MBean server, if they were registered.
+   */
+  public void unregister() {
+    if (this.name != null) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.name);
+      } catch (JMException ex) {
+        // already gone
+      }
+      this.name = null;
+    }
+  }
+
+  @Override
+  public long getFrameCount() {
+    return this.written.get() - this.resetAt;
+  }
+
+  @Override
+  public long getDroppedTicks() {
+    return this.droppedTotal.get() - this.droppedAtReset;
+  }
+
+  @Override
+  public double getEvaluateMillisMedian() {
+    return percentile(EVALUATE_NANOS, 0.5) / 1e6;
+  }
+
+  @Override
+  public double getEvaluateMillis99th() {
+    return percentile(EVALUATE_NANOS, 0.99) / 1e6;
+  }
+
+  @Override
+  public double getPaintMillisMedian() {
+    return percentile(PAINT_NANOS, 0.5) / 1e6;
+  }
+
+  @Override
+  public double getPaintMillis99th() {
+    return percentile(PAINT_NANOS, 0.99) / 1e6;
+  }
+
+  @Override
+  public double getShapesDrawnMedian() {
+    return percentile(SHAPES_DRAWN, 0.5);
+  }
+
+  @Override
+  public double getShapesCulledMedian() {
+    return percentile(SHAPES_CULLED, 0.5);
+  }
+
+  @Override
+  public double getAllocatedBytesMedian() {
+    return percentile(ALLOCATED_BYTES, 0.5);
+  }
+
+  @Override
+  public double getAllocatedBytes99th() {
+    return percentile(ALLOCATED_BYTES, 0.99);
+  }
+
+  /**
+   * Forgets the recorded frames. The frames published before the reset are no longer read, so the
+   * reset does not have to touch the ring buffer the drawing thread writes.
+   */
+  @Override
+  public void reset() {
+    this.droppedAtReset = this.droppedTotal.get();
+    this.resetAt = this.written.get();
+  }
+
+  /**
+   * Copies one metric of the frames in the ring buffer, dropping the frames that may have been
+   * overwritten while they were copied.
+   */
+  private long[] snapshot(int metric) {
+    long end = this.written.get();
+    long start = Math.max(this.resetAt, end - this.kept);
+    long[] values = new long[(int) Math.max(0, end - start)];
+    for (long frame = start; frame < end; frame++) {
+      values[(int) (frame - start)] =
+              this.slots[(int) (frame & (this.capacity - 1)) * METRICS + metric];
+    }
+    // the writer may be filling the slot of the frame after the last one published
+    long overwritten = this.written.get() + 1 - this.capacity;
+    if (overwritten > start) {
+      return Arrays.copyOfRange(values, (int) Math.min(values.length, overwritten - start),
+              values.length);
+    }
+    return values;
+  }
+
+  private long allocatedBytes() {
+    return this.allocations == null ? -1 : this.allocations.getCurrentThreadAllocatedBytes();
+  }
+
+  private static void appendMillis(StringBuilder text, long nanos) {
+    long hundredths = (nanos + 5_000) / 10_000;
+    text.append(hundredths / 100).append('.');
+    if (hundredths % 100 < 10) {
+      text.append('0');
+    }
+    text.append(hundredths % 100);
+  }
+}
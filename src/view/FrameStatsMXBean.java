@@ -0,0 +1,88 @@
+package view;
+
+/**
+ * This interface represents the management view of the frame statistics of a playing animation,
+ * as seen through JMX, for example in JConsole. Percentiles are taken over the most recent frames
+ * kept by the statistics.
+ */
+public interface FrameStatsMXBean {
+
+  /**
+   * Returns the number of frames recorded since the statistics were created or reset.
+   *
+   * @return the number of frames
+   */
+  long getFrameCount();
+
+  /**
+   * Returns the number of ticks that passed on the clock without being shown since the statistics
+   * were created or reset.
+   *
+   * @return the number of dropped ticks
+   */
+  long getDroppedTicks();
+
+  /**
+   * Returns the median time spent getting a frame evaluated, in milliseconds.
+   *
+   * @return the median evaluate time
+   */
+  double getEvaluateMillisMedian();
+
+  /**
+   * Returns the 99th percentile of the time spent getting a frame evaluated, in milliseconds.
+   *
+   * @return the 99th percentile of the evaluate time
+   */
+  double getEvaluateMillis99th();
+
+  /**
+   * Returns the median time spent painting a frame, in milliseconds.
+   *
+   * @return the median paint time
+   */
+  double getPaintMillisMedian();
+
+  /**
+   * Returns the 99th percentile of the time spent painting a frame, in milliseconds.
+   *
+   * @return the 99th percentile of the paint time
+   */
+  double getPaintMillis99th();
+
+  /**
+   * Returns the median number of shapes drawn in a frame.
+   *
+   * @return the median number of shapes drawn
+   */
+  double getShapesDrawnMedian();
+
+  /**
+   * Returns the median number of shapes in a frame that were considered but not drawn because
+   * they lay outside the region being painted.
+   *
+   * @return the median number of shapes culled
+   */
+  double getShapesCulledMedian();
+
+  /**
+   * Returns the median number of bytes the drawing thread allocated per frame, or -1 if the
+   * virtual machine does not measure it.
+   *
+   * @return the median allocation per frame
+   */
+  double getAllocatedBytesMedian();
+
+  /**
+   * Returns the 99th percentile of the bytes the drawing thread allocated per frame, or -1 if the
+   * virtual machine does not measure it.
+   *
+   * @return the 99th percentile of the allocation per frame
+   */
+  double getAllocatedBytes99th();
+
+  /**
+   * Forgets all recorded frames.
+   */
+  void reset();
+}
@@ -1,5 +1,7 @@
 package view;
 
+import java.io.IOException;
+
 import model.IAnimationModel;
 
 
@@ -16,6 +18,18 @@ public interface IView {
    */
   String createView(IAnimationModel model);
 
+  /**
+   * This method writes the view of a model to an output. Views that produce text can override it
+   * to write the text piece by piece instead of building it as one string first.
+   *
+   * @param model model that is required to get information to generate a view.
+   * @param out   the output the view is written to
+   * @throws IOException if the output cannot be written
+   */
+  default void writeView(IAnimationModel model, Appendable out) throws IOException {
+    out.append(createView(model));
+  }
+
 
   /**
    * This method is a getter that returns the view type.
@@ -113,7 +113,8 @@ public class InteractiveView extends JFrame implements IView, ActionListener {
   }
 
   /**
-   * This method gets a string representation of a model.
+   * This method gets a string representation of a model. The animation is played back by the clock
+   * of the panel at the speed of the model, in ticks per second, like in the visual view.
    *
    * @param model model that is required to get information to generate a view.
    * @return empty string
@@ -121,7 +122,10 @@ public class InteractiveView extends JFrame implements IView, ActionListener {
   @Override
   public String createView(IAnimationModel model) {
     this.model = model;
-    Timer timer = new Timer(this.model.getTick(), this);
+    PlaybackClock clock = this.panel.getClock();
+    clock.setSpeed(Math.max(1, model.getTick()));
+    clock.setTick(0);
+    Timer timer = new Timer(clock.getFrameDelay(), this);
     timer.start();
     return "";
 
@@ -137,12 +141,13 @@ public class InteractiveView extends JFrame implements IView, ActionListener {
   }
 
   /**
-   * This is the actionPerformed method that listens for button clicks.
+   * This is the actionPerformed method that moves the panel on to the next frame on every tick of
+   * the timer, repainting what changed.
    *
-   * @param event button clicks
+   * @param event - the tick of the timer
    */
   @Override
   public void actionPerformed(ActionEvent event) {
-    repaint();
+    this.panel.nextFrame();
   }
 }
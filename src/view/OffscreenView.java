@@ -0,0 +1,132 @@
+package view;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import model.IAnimationModel;
+
+/**
+ * This class represents a view that renders an animation without a display. Every tick from 0 to
+ * the end time of the animation is drawn into an image the size of the canvas, and each frame is
+ * written out either as a numbered PNG file in a directory or as raw RGB bytes, three per pixel row
+ * by row, to a file or a stream. Frames are rendered and encoded in parallel by a
+ * {@link FrameExportPipeline}, which reuses its images. It needs no window and works with
+ * {@code java.awt.headless=true}.
+ */
+public class OffscreenView implements IView {
+  /**
+   * The file name extension that selects raw RGB output to a file.
+   */
+  public static final String RAW_EXTENSION = ".rgb";
+
+  private final String output;
+  private final OutputStream stream;
+  private final FrameExportPipeline pipeline;
+
+  /**
+   * Constructs an offscreen view writing to the named output. If the name ends with
+   * {@link #RAW_EXTENSION} the frames are written as raw RGB to that file; otherwise the name is a
+   * directory, created if needed, that receives one PNG file per frame.
+   *
+   * @param output the name of the output directory or raw RGB file
+   */
+  public OffscreenView(String output) {
+    this(output, new FrameExportPipeline());
+  }
+
+  /**
+   * Constructs an offscreen view writing to the named output through the given export pipeline.
+   *
+   * @param output   the name of the output directory or raw RGB file
+   * @param pipeline the pipeline that renders and encodes the frames
+   */
+  public OffscreenView(String output, FrameExportPipeline pipeline) {
+    this.output = Objects.requireNonNull(output);
+    this.stream = null;
+    this.pipeline = Objects.requireNonNull(pipeline);
+  }
+
+  /**
+   * Constructs an offscreen view writing the frames as raw RGB to a stream. The stream is flushed
+   * but not closed.
+   *
+   * @param stream the stream the frames are written to
+   */
+  public OffscreenView(OutputStream stream) {
+    this(stream, new FrameExportPipeline());
+  }
+
+  /**
+   * Constructs an offscreen view writing the frames as raw RGB to a stream through the given
+   * export pipeline. The stream is flushed but not closed.
+   *
+   * @param stream   the stream the frames are written to
+   * @param pipeline the pipeline that renders and encodes the frames
+   */
+  public OffscreenView(OutputStream stream, FrameExportPipeline pipeline) {
+    this.output = null;
+    this.stream = Objects.requireNonNull(stream);
+    this.pipeline = Objects.requireNonNull(pipeline);
+  }
+
+  /**
+   * This method returns the type of view.
+   *
+   * @return type of view
+   */
+  @Override
+  public ViewType getViewType() {
+    return ViewType.OFFSCREEN;
+  }
+
+  /**
+   * Renders every frame of the animation and writes it to the output of the view.
+   *
+   * @param model animation model that is required to get information to generate a view.
+   * @return empty string
+   * @throws IllegalArgumentException if the frames could not be written
+   */
+  @Override
+  public String createView(IAnimationModel model) throws IllegalArgumentException {
+    int endTime = model.getEndTime();
+    try {
+      if (this.stream != null) {
+        OutputStream out = new BufferedOutputStream(this.stream, 1 << 16);
+        this.pipeline.export(model, 0, endTime, FrameExportPipeline.Format.RAW,
+                (tick, data) -> out.write(data));
+        out.flush();
+      } else if (this.output.endsWith(RAW_EXTENSION)) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(this.output),
+                1 << 16)) {
+          this.pipeline.export(model, 0, endTime, FrameExportPipeline.Format.RAW,
+                  (tick, data) -> out.write(data));
+        }
+      } else {
+        File directory = new File(this.output);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+          throw new IOException("Cannot create " + directory);
+        }
+        this.pipeline.export(model, 0, endTime, FrameExportPipeline.Format.PNG,
+                (tick, data) -> Files.write(new File(directory, frameName(tick)).toPath(), data));
+      }
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Frames could not be written.");
+    }
+    return "";
+  }
+
+  /**
+   * Returns the name of the PNG file of a frame.
+   *
+   * @param tick the tick of the frame
+   * @return the file name
+   */
+  static String frameName(int tick) {
+    return String.format("frame-%06d.png", tick);
+  }
+}
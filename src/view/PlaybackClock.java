@@ -0,0 +1,171 @@
+package view;
+
+import java.util.function.LongSupplier;
+
+/**
+ * This class represents the clock that an animation is played back by. The current tick is
+ * derived from the time that has passed and the speed in ticks per second, not counted up once per
+ * frame, so a frame that is drawn late or not at all does not slow the animation down: the next
+ * frame simply shows whatever tick is due by then. The clock can be paused, resumed, moved to a
+ * tick and given another speed without jumping.
+ */
+public class PlaybackClock {
+  private static final int MIN_FRAME_DELAY = 15;
+  private static final int MAX_FRAME_DELAY = 100;
+
+  private final LongSupplier nanoTime;
+  private int speed;
+  private double startTick;
+  private long startNanos;
+  private boolean paused;
+
+  /**
+   * Constructs a clock at tick 0 that runs on the system timer.
+   *
+   * @param speed the speed in ticks per second
+   * @throws IllegalArgumentException if the speed is not positive
+   */
+  public PlaybackClock(int speed) {
+    this(speed, System::nanoTime);
+  }
+
+  /**
+   * Constructs a clock at tick 0 that runs on the given timer.
+   *
+   * @param speed    the speed in ticks per second
+   * @param nanoTime the timer, returning the time in nanoseconds like {@link System#nanoTime}
+   * @throws IllegalArgumentException if the speed is not positive
+   */
+  public PlaybackClock(int speed, LongSupplier nanoTime) {
+    if (speed < 1) {
+      throw new IllegalArgumentException("Speed must be positive.");
+    }
+    if (nanoTime == null) {
+      throw new IllegalArgumentException("Timer cannot be null.");
+    }
+    this.nanoTime = nanoTime;
+    this.speed = speed;
+    this.startTick = 0;
+    this.startNanos = nanoTime.getAsLong();
+  }
+
+  /**
+   * Returns the tick that is due now.
+   *
+   * @return the current tick
+   */
+  public int getTick() {
+    return toTick(position(this.nanoTime.getAsLong()));
+  }
+
+  /**
+   * Returns the tick that will be due after the given time if the clock keeps running, which is
+   * the current tick if it is paused.
+   *
+   * @param millis the time from now in milliseconds
+   * @return the tick due then
+   */
+  public int getTickAfter(int millis) {
+    return toTick(position(this.nanoTime.getAsLong() + millis * 1_000_000L));
+  }
+
+  /**
+   * Moves the clock to the start of the given tick. A running clock carries on from there.
+   *
+   * @param tick the tick
+   * @throws IllegalArgumentException if the tick is negative
+   */
+  public void setTick(int tick) {
+    if (tick < 0) {
+      throw new IllegalArgumentException("Tick cannot be negative.");
+    }
+    this.startTick = tick;
+    this.startNanos = this.nanoTime.getAsLong();
+  }
+
+  /**
+   * Returns the speed of the clock.
+   *
+   * @return the speed in ticks per second
+   */
+  public int getSpeed() {
+    return this.speed;
+  }
+
+  /**
+   * Changes the speed of the clock from now on, without changing the current tick.
+   *
+   * @param speed the speed in ticks per second
+   * @throws IllegalArgumentException if the speed is not positive
+   */
+  public void setSpeed(int speed) {
+    if (speed < 1) {
+      throw new IllegalArgumentException("Speed must be positive.");
+    }
+    rebase();
+    this.speed = speed;
+  }
+
+  /**
+   * Stops the clock at the current tick. Pausing a paused clock does nothing.
+   */
+  public void pause() {
+    if (!this.paused) {
+      rebase();
+      this.paused = true;
+    }
+  }
+
+  /**
+   * Lets a paused clock run again from the tick it was paused at. Playing a running clock does
+   * nothing.
+   */
+  public void play() {
+    if (this.paused) {
+      this.startNanos = this.nanoTime.getAsLong();
+      this.paused = false;
+    }
+  }
+
+  /**
+   * Returns whether the clock is paused.
+   *
+   * @return true if the clock is paused
+   */
+  public boolean isPaused() {
+    return this.paused;
+  }
+
+  /**
+   * Returns how often a view should show a frame to keep up with the clock, in milliseconds: once
+   * per tick, but not more than about sixty times a second nor less than ten times a second.
+   *
+   * @return the delay between frames in milliseconds
+   */
+  public int getFrameDelay() {
+    return Math.max(MIN_FRAME_DELAY, Math.min(MAX_FRAME_DELAY, 1000 / this.speed));
+  }
+
+  /**
+   * Moves the start of the clock to now, keeping the current position.
+   */
+  private void rebase() {
+    long now = this.nanoTime.getAsLong();
+    this.startTick = position(now);
+    this.startNanos = now;
+  }
+
+  private double position(long now) {
+    if (this.paused) {
+      return this.startTick;
+    }
+    return this.startTick + (now - this.startNanos) * (double) this.speed / 1e9;
+  }
+
+  /**
+   * Rounds a position down to its tick, leaving room for the tick after it.
+   */
+  private static int toTick(double position) {
+    return (int) Math.max(0, Math.min(Integer.MAX_VALUE - 1, Math.floor(position)));
+  }
+}
@@ -0,0 +1,314 @@
+package view;
+
+import java.io.IOException;
+import java.util.List;
+
+import model.IAnimationModel;
+import model.animations.ColorChange;
+import model.animations.IAnimation;
+import model.animations.Move;
+import model.animations.Scale;
+import model.shapes.IShape2D;
+import util.Color;
+import util.Position;
+
+/**
+ * This class represents the SVG view of an animation and it implements the view interface. Every
+ * shape becomes a {@code <rect>} or {@code <ellipse>} element, in the order the shapes are drawn,
+ * with an {@code <animate>} child for each property its move, scale and color change animations
+ * change. Times are converted from ticks to milliseconds with the speed of the model.
+ *
+ * <p>
+ * Shapes are placed the way the visual views draw them: the position of an oval is the corner of
+ * its bounding box and its size is the width and height of that box, so the center and radii of
+ * the ellipse are derived from both. A shape appears at its start time and disappears after the
+ * end of its last animation. The view is written shape by shape and only keeps the current state of
+ * the shape being written, so scenes with millions of animations are exported in little memory.
+ * </p>
+ */
+public class SvgView implements IView {
+  private static final int FLUSH_SIZE = 8192;
+
+  /**
+   * Getter method to get the view type.
+   *
+   * @return - view type
+   */
+  @Override
+  public ViewType getViewType() {
+    return ViewType.SVG;
+  }
+
+  /**
+   * Creates the view based on the model passed in.
+   *
+   * @param model - animation model that is needed to create the view.
+   * @return - the view in the form of an SVG document
+   */
+  @Override
+  public String createView(IAnimationModel model) {
+    StringBuilder stringBuilder = new StringBuilder();
+    try {
+      writeView(model, stringBuilder);
+    } catch (IOException ex) {
+      throw new IllegalStateException("View could not be created.");
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Writes the view based on the model passed in to the output as an SVG document, handing it over
+   * in chunks of a few kilobytes.
+   *
+   * @param model - animation model that is needed to create the view.
+   * @param out   - the output the view is written to
+   * @throws IOException if the output cannot be written
+   */
+  @Override
+  public void writeView(IAnimationModel model, Appendable out) throws IOException {
+    StringBuilder text = out instanceof StringBuilder
+            ? (StringBuilder) out : new StringBuilder(2 * FLUSH_SIZE);
+    double msPerTick = 1000.0 / Math.max(1, model.getTick());
+
+    text.append("<svg width=\"").append(model.getCanvasWidth())
+            .append("\" height=\"").append(model.getCanvasHeight())
+            .append("\" viewBox=\"").append(model.getCanvasX())
+            .append(' ').append(model.getCanvasY())
+            .append(' ').append(model.getCanvasWidth())
+            .append(' ').append(model.getCanvasHeight())
+            .append("\" version=\"1.1\" xmlns=\"http://www.w3.org/2000/svg\">\n");
+    for (IShape2D shape : model.getModelShapes()) {
+      writeShape(shape, msPerTick, text, out);
+    }
+    text.append("</svg>\n");
+    flush(text, out, 0);
+  }
+
+  /**
+   * Writes the element of one shape and its animations, keeping track of the position, size and
+   * color the shape has when each animation starts.
+   */
+  private static void writeShape(IShape2D shape, double msPerTick, StringBuilder text,
+                                 Appendable out) throws IOException {
+    boolean oval;
+    switch (shape.getType()) {
+      case Rectangle:
+        oval = false;
+        break;
+      case Oval:
+        oval = true;
+        break;
+      default:
+        return;
+    }
+    double x = shape.getPosition().getX();
+    double y = shape.getPosition().getY();
+    double width = shape.getSizeArg1();
+    double height = shape.getSizeArg2();
+    Color color = shape.getColor();
+
+    text.append(oval ? "<ellipse id=\"" : "<rect id=\"");
+    appendEscaped(text, shape.getName());
+    if (oval) {
+      appendAttribute(text, "cx", x + width / 2);
+      appendAttribute(text, "cy", y + height / 2);
+      appendAttribute(text, "rx", width / 2);
+      appendAttribute(text, "ry", height / 2);
+    } else {
+      appendAttribute(text, "x", x);
+      appendAttribute(text, "y", y);
+      appendAttribute(text, "width", width);
+      appendAttribute(text, "height", height);
+    }
+    text.append("\" fill=\"");
+    appendRgb(text, color);
+    text.append("\" visibility=\"hidden\">\n");
+    appendVisibility(text, shape.getStartTime() * msPerTick, "visible");
+
+    List<IAnimation> animations = shape.getTimeline().getAnimations();
+    int i = 0;
+    while (i < animations.size()) {
+      // the animations sharing an interval are written as one, so that a move and a scale of an
+      // ellipse both animating its center do not override each other
+      int start = animations.get(i).getStartTime();
+      int end = animations.get(i).getEndTime();
+      double newX = x;
+      double newY = y;
+      double newWidth = width;
+      double newHeight = height;
+      Color newColor = color;
+      while (i < animations.size() && animations.get(i).getStartTime() == start
+              && animations.get(i).getEndTime() == end) {
+        IAnimation animation = animations.get(i);
+        switch (animation.getType()) {
+          case Move:
+            Position position = ((Move) animation).getFinalPosition();
+            newX = position.getX();
+            newY = position.getY();
+            break;
+          case Scale:
+            Scale scale = (Scale) animation;
+            newWidth = width + scale.getDeltaX();
+            newHeight = height + scale.getDeltaY();
+            break;
+          case Color:
+            newColor = ((ColorChange) animation).getColor();
+            break;
+          default:
+            break;
+        }
+        i++;
+      }
+
+      if (oval) {
+        appendAnimate(text, msPerTick, start, end, "cx", x + width / 2, newX + newWidth / 2);
+        appendAnimate(text, msPerTick, start, end, "cy", y + height / 2, newY + newHeight / 2);
+        appendAnimate(text, msPerTick, start, end, "rx", width / 2, newWidth / 2);
+        appendAnimate(text, msPerTick, start, end, "ry", height / 2, newHeight / 2);
+      } else {
+        appendAnimate(text, msPerTick, start, end, "x", x, newX);
+        appendAnimate(text, msPerTick, start, end, "y", y, newY);
+        appendAnimate(text, msPerTick, start, end, "width", width, newWidth);
+        appendAnimate(text, msPerTick, start, end, "height", height, newHeight);
+      }
+      appendColorAnimate(text, msPerTick, start, end, color, newColor);
+      x = newX;
+      y = newY;
+      width = newWidth;
+      height = newHeight;
+      color = newColor;
+      flush(text, out, FLUSH_SIZE);
+    }
+
+    if (!animations.isEmpty()) {
+      appendVisibility(text, (shape.getTimeline().getMaxEndTime() + 1) * msPerTick, "hidden");
+    }
+    text.append(oval ? "</ellipse>\n" : "</rect>\n");
+    flush(text, out, FLUSH_SIZE);
+  }
+
+  /**
+   * Appends an animation of one attribute, unless it leaves the attribute unchanged. An animation
+   * that takes no time sets the attribute instead, since SVG animations need a positive duration.
+   */
+  private static void appendAnimate(StringBuilder text, double msPerTick, int start, int end,
+                                    String attribute, double from, double to) {
+    if (from == to) {
+      return;
+    }
+    if (start == end) {
+      text.append("  <set attributeType=\"xml\" begin=\"");
+      appendNumber(text, start * msPerTick);
+      text.append("ms\" attributeName=\"").append(attribute).append("\" to=\"");
+      appendNumber(text, to);
+      text.append("\" fill=\"freeze\" />\n");
+      return;
+    }
+    appendTiming(text, msPerTick, start, end, attribute);
+    text.append(" from=\"");
+    appendNumber(text, from);
+    text.append("\" to=\"");
+    appendNumber(text, to);
+    text.append("\" fill=\"freeze\" />\n");
+  }
+
+  /**
+   * Appends an animation of the fill color, unless it leaves the color unchanged.
+   */
+  private static void appendColorAnimate(StringBuilder text, double msPerTick, int start, int end,
+                                         Color from, Color to) {
+    if (Math.round(from.getRed()) == Math.round(to.getRed())
+            && Math.round(from.getGreen()) == Math.round(to.getGreen())
+            && Math.round(from.getBlue()) == Math.round(to.getBlue())) {
+      return;
+    }
+    if (start == end) {
+      text.append("  <set attributeType=\"xml\" begin=\"");
+      appendNumber(text, start * msPerTick);
+      text.append("ms\" attributeName=\"fill\" to=\"");
+      appendRgb(text, to);
+      text.append("\" fill=\"freeze\" />\n");
+      return;
+    }
+    appendTiming(text, msPerTick, start, end, "fill");
+    text.append(" from=\"");
+    appendRgb(text, from);
+    text.append("\" to=\"");
+    appendRgb(text, to);
+    text.append("\" fill=\"freeze\" />\n");
+  }
+
+  private static void appendTiming(StringBuilder text, double msPerTick, int start, int end,
+                                   String attribute) {
+    text.append("  <animate attributeType=\"xml\" begin=\"");
+    appendNumber(text, start * msPerTick);
+    text.append("ms\" dur=\"");
+    appendNumber(text, (end - start) * msPerTick);
+    text.append("ms\" attributeName=\"").append(attribute).append('"');
+  }
+
+  private static void appendVisibility(StringBuilder text, double ms, String visibility) {
+    text.append("  <set attributeType=\"xml\" begin=\"");
+    appendNumber(text, ms);
+    text.append("ms\" attributeName=\"visibility\" to=\"").append(visibility)
+            .append("\" fill=\"freeze\" />\n");
+  }
+
+  private static void appendAttribute(StringBuilder text, String name, double value) {
+    text.append("\" ").append(name).append("=\"");
+    appendNumber(text, value);
+  }
+
+  private static void appendRgb(StringBuilder text, Color color) {
+    text.append("rgb(").append(Math.round(color.getRed()))
+            .append(',').append(Math.round(color.getGreen()))
+            .append(',').append(Math.round(color.getBlue())).append(')');
+  }
+
+  /**
+   * Appends a number, without a fraction if it is a whole number.
+   */
+  private static void appendNumber(StringBuilder text, double value) {
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      text.append((long) value);
+    } else {
+      text.append(value);
+    }
+  }
+
+  /**
+   * Appends a shape name with the characters XML reserves replaced by entities.
+   */
+  private static void appendEscaped(StringBuilder text, String name) {
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      switch (c) {
+        case '&':
+          text.append("&amp;");
+          break;
+        case '<':
+          text.append("&lt;");
+          break;
+        case '>':
+          text.append("&gt;");
+          break;
+        case '"':
+          text.append("&quot;");
+          break;
+        default:
+          text.append(c);
+      }
+    }
+  }
+
+  /**
+   * Hands the text collected so far to the output once there is at least the given amount of it,
+   * unless the text is collected in the output itself.
+   */
+  private static void flush(StringBuilder text, Appendable out, int size) throws IOException {
+    if (text != out && text.length() > 0 && text.length() >= size) {
+      out.append(text);
+      text.setLength(0);
+    }
+  }
+}
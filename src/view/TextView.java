@@ -1,7 +1,10 @@
 package view;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
 
 import model.IAnimationModel;
 import model.animations.IAnimation;
@@ -13,7 +16,6 @@ import model.shapes.IShape2D;
  * view will display a text version of the animation.
  */
 public class TextView implements IView {
-
   /**
    * Getter method to get the view type.
    *
@@ -32,42 +34,92 @@ public class TextView implements IView {
    * @return - the view in the form of a string
    */
   public String createView(IAnimationModel model) {
-
-
-    ArrayList<IAnimation> animations = new ArrayList<>();
-    model.getModelShapes().sort(Comparator.comparingInt(IShape2D::getStartTime));
-
     StringBuilder stringBuilder = new StringBuilder();
-    if (!model.getModelShapes().isEmpty()) {
+    try {
+      writeView(model, stringBuilder);
+    } catch (IOException ex) {
+      throw new IllegalStateException("View could not be created.");
+    }
+    return stringBuilder.toString();
+  }
+
+  /**
+   * Writes the view based on the model passed in to the output, one shape or animation description
+   * at a time, so that the text of the whole view is never held in memory. Shapes are listed in
+   * order of their start time. The animations of every shape are already ordered by start time, so
+   * they are listed in global start time order by merging those lists, taking the animation that
+   * starts first from the shape listed first. The model and its lists are left untouched.
+   *
+   * @param model - animation model that is needed to create the view.
+   * @param out   - the output the view is written to
+   * @throws IOException if the output cannot be written
+   */
+  @Override
+  public void writeView(IAnimationModel model, Appendable out) throws IOException {
+    ArrayList<IShape2D> shapes = new ArrayList<>(model.getModelShapes());
+    shapes.sort(Comparator.comparingInt(IShape2D::getStartTime));
+    // every description is appended into one reused builder and handed to the output when done
+    StringBuilder text = out instanceof StringBuilder
+            ? (StringBuilder) out : new StringBuilder(256);
 
-      stringBuilder.append("Shapes:\n");
+    if (!shapes.isEmpty()) {
 
-      for (int i = 0; i < model.getModelShapes().size(); i++) {
+      text.append("Shapes:\n");
 
-        int getLastVal = (model.getModelShapes().get(i).getAnimation().size() - 1);
-        animations.addAll(model.getModelShapes().get(i).getAnimation());
-        stringBuilder.append("Name: ");
-        stringBuilder.append(model.getModelShapes().get(i).getName());
-        stringBuilder.append("\nType: ");
-        stringBuilder.append(model.getModelShapes().get(i).getType());
-        stringBuilder.append("\n");
-        stringBuilder.append(model.getModelShapes().get(i).getDescription());
-        stringBuilder.append("Appears at t=");
-        stringBuilder.append((model.getModelShapes().get(i).getStartTime()));
-        stringBuilder.append("\n");
-        stringBuilder.append("Disappears at t=");
-        stringBuilder.append((model.getModelShapes().get(i).getAnimation()
-                .get(getLastVal)).getEndTime());
-        stringBuilder.append("\n\n");
+      for (IShape2D shape : shapes) {
+        int getLastVal = (shape.getAnimation().size() - 1);
+        text.append("Name: ");
+        text.append(shape.getName());
+        text.append("\nType: ");
+        text.append(shape.getType());
+        text.append("\n");
+        shape.appendDescription(text);
+        text.append("Appears at t=");
+        text.append(shape.getStartTime());
+        text.append("\n");
+        text.append("Disappears at t=");
+        text.append((shape.getAnimation().get(getLastVal)).getEndTime());
+        text.append("\n\n");
+        flush(text, out);
+      }
 
+      int[] next = new int[shapes.size()];
+      Comparator<Integer> byNextStart = (first, second) -> {
+        int byStart = Integer.compare(
+                shapes.get(first).getAnimation().get(next[first]).getStartTime(),
+                shapes.get(second).getAnimation().get(next[second]).getStartTime());
+        return byStart != 0 ? byStart : Integer.compare(first, second);
+      };
+      PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, shapes.size()), byNextStart);
+      for (int i = 0; i < shapes.size(); i++) {
+        if (!shapes.get(i).getAnimation().isEmpty()) {
+          queue.add(i);
+        }
       }
-      for (int j = 0; j < animations.size(); j++) {
-        animations.sort(Comparator.comparingInt(IAnimation::getStartTime));
-        stringBuilder.append(animations.get(j).animationDescription(model));
+      while (!queue.isEmpty()) {
+        int i = queue.poll();
+        List<IAnimation> animations = shapes.get(i).getAnimation();
+        animations.get(next[i]).appendDescription(model, text);
+        flush(text, out);
+        next[i]++;
+        if (next[i] < animations.size()) {
+          queue.add(i);
+        }
       }
     } else {
-      stringBuilder.append("\nThere are no more 2D shape objects in this model.");
+      text.append("\nThere are no more 2D shape objects in this model.");
+    }
+    flush(text, out);
+  }
+
+  /**
+   * Hands the text collected so far to the output, unless the text is collected in the output
+   * itself.
+   */
+  private static void flush(StringBuilder text, Appendable out) throws IOException {
+    if (text != out && text.length() > 0) {
+      out.append(text);
+      text.setLength(0);
     }
-    return stringBuilder.toString();
   }
 }
@@ -19,6 +19,20 @@ public class ViewFactory {
    */
   public IView viewFactoryImpl(String viewType, IAnimationModel model)
           throws IllegalArgumentException {
+    return viewFactoryImpl(viewType, model, null);
+  }
+
+  /**
+   * This method implements the view factory to generate the view, for views that write their own
+   * output rather than returning it from {@link IView#createView}.
+   *
+   * @param viewType is a string for the  view
+   * @param model    animation model passed in
+   * @param output   the name of the output given by the user, or null for standard output
+   * @throws IllegalArgumentException if the view is invalid.
+   */
+  public IView viewFactoryImpl(String viewType, IAnimationModel model, String output)
+          throws IllegalArgumentException {
     switch (viewType.toLowerCase()) {
       case "visual":
         VisualView visual;
@@ -36,6 +50,13 @@ public class ViewFactory {
         interactive.getPlay().addActionListener(new PausePlayListener(interactive));
         interactive.getRestart().addActionListener(new RestartListener(interactive));
         return interactive;
+      case "svg":
+        return new SvgView();
+      case "offscreen":
+        if (output == null) {
+          return new OffscreenView(System.out);
+        }
+        return new OffscreenView(output);
       default:
         throw new IllegalArgumentException(viewType + "is not supported by the specifications "
                 + "of this project.");
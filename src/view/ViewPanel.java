@@ -2,30 +2,57 @@ package view;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.util.ArrayList;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.VolatileImage;
 
 import javax.swing.JPanel;
 
+import model.FrameBuffer;
 import model.IAnimationModel;
-import model.shapes.IShape2D;
 
 /**
  * This is the ViewPanel class that extends the JPanel class. This class calls the paint and
  * repaint in built methods of the JPanel class to project the image.
  */
 public class ViewPanel extends JPanel {
+  private static final boolean STATS = Boolean.getBoolean("easyanimator.stats");
+  private static final boolean STATS_OVERLAY = Boolean.getBoolean("easyanimator.stats.overlay");
+  private static final int OVERLAY_HEIGHT = 18;
+  private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+
   private IAnimationModel model;
-  private int tick;
-  private int pauseCounter;
+  private final PlaybackClock clock;
+  private int shownTick;
+  private int nextTick;
+  private final FrameEvaluator evaluator = new FrameEvaluator();
+  private final FrameRenderer renderer = new FrameRenderer();
+  private final DirtyRegion dirtyRegion = new DirtyRegion();
+  private boolean accelerated;
+  private VolatileImage backBuffer;
+  private FrameStats stats;
+  private boolean statsOverlay;
+  private String overlayText;
+  private int lastShownTick;
 
   /**
    * This is a constructor for the animation that sets the background color to white by default.
+   * Frame statistics are recorded and registered with JMX if the system property
+   * "easyanimator.stats" is true, and shown over the animation if "easyanimator.stats.overlay" is
+   * true as well.
    */
   public ViewPanel() {
     super();
     this.setBackground(Color.WHITE);
-    this.tick = 0;
-    this.pauseCounter = 0;
+    this.clock = new PlaybackClock(1);
+    this.accelerated = true;
+    this.lastShownTick = -1;
+    if (STATS) {
+      FrameStats stats = new FrameStats();
+      stats.register();
+      setFrameStats(stats);
+      setStatsOverlay(STATS_OVERLAY);
+    }
   }
 
   /**
@@ -38,12 +65,82 @@ public class ViewPanel extends JPanel {
   }
 
   /**
-   * This is a setter method for the pause counter.
+   * This is a getter method for the clock that the animation is played back by.
+   *
+   * @return the playback clock of the panel
+   */
+  public PlaybackClock getClock() {
+    return this.clock;
+  }
+
+  /**
+   * This method switches the animation between paused and playing.
    */
   public void setPauseCounter() {
-    this.pauseCounter++;
+    if (this.clock.isPaused()) {
+      this.clock.play();
+    } else {
+      this.clock.pause();
+    }
+  }
+
+
+  /**
+   * This method tells whether the panel draws through an accelerated back buffer.
+   *
+   * @return true if the accelerated rendering mode is on
+   */
+  public boolean isAccelerated() {
+    return this.accelerated;
+  }
+
+  /**
+   * This is a setter method for the accelerated rendering mode, which is on by default. In this
+   * mode frames are drawn into a {@link VolatileImage} kept by the panel, which the graphics
+   * hardware can hold, and copied onto the screen in one go. Where no such image can be created,
+   * for example without a display, the panel draws directly as it does with the mode off.
+   *
+   * @param accelerated true to draw through the back buffer
+   */
+  public void setAccelerated(boolean accelerated) {
+    this.accelerated = accelerated;
+    if (!accelerated && this.backBuffer != null) {
+      this.backBuffer.flush();
+      this.backBuffer = null;
+    }
+  }
+
+  /**
+   * This is a getter method for the frame statistics of the panel.
+   *
+   * @return the frame statistics, or null if none are recorded
+   */
+  public FrameStats getFrameStats() {
+    return this.stats;
+  }
+
+  /**
+   * This is a setter method for the frame statistics that the panel records every frame into.
+   * Without statistics the panel records nothing and measures nothing.
+   *
+   * @param stats the frame statistics, or null to stop recording
+   */
+  public void setFrameStats(FrameStats stats) {
+    this.stats = stats;
+    this.overlayText = null;
   }
 
+  /**
+   * This is a setter method for the overlay that shows a summary of the frame statistics in the
+   * top left corner of the panel while they are recorded.
+   *
+   * @param statsOverlay true to show the overlay
+   */
+  public void setStatsOverlay(boolean statsOverlay) {
+    this.statsOverlay = statsOverlay;
+    this.overlayText = null;
+    repaint();
+  }
 
   /**
    * This is a setter method for the model. This sets the model that will be used in implementation.
@@ -52,70 +149,173 @@ public class ViewPanel extends JPanel {
    */
   public void setModel(IAnimationModel model) {
     this.model = model;
+    this.evaluator.setModel(model);
+    this.dirtyRegion.clear();
+    this.lastShownTick = -1;
+    if (this.backBuffer != null) {
+      this.backBuffer.flush();
+      this.backBuffer = null;
+    }
+    repaint();
   }
 
 
   /**
-   * This is a getter method for the tick value of the animation.
+   * This is a getter method for the tick value of the animation, the tick that is due on the
+   * clock.
    *
    * @return the tick value of the animation.
    */
   public int getTick() {
-    return this.tick;
+    return this.clock.getTick();
   }
 
   /**
-   * This is a setter method for the tick value for the panel in the animator.
+   * This is a setter method for the tick value for the panel in the animator. The clock carries on
+   * from the given tick.
    */
   public void setTick(int tick) {
-    this.tick = tick;
+    this.clock.setTick(tick);
+  }
+
+  /**
+   * Shows the frame at the tick that is due on the clock, however many ticks have passed since the
+   * frame shown before. Only the region where the frame differs from the frame shown before is
+   * repainted: the union of the old and new bounds of every shape that moved, changed size or
+   * color, appeared or disappeared. Nothing is repainted if nothing changed. The views call this on
+   * every tick of their timer, and the frame due one timer delay later is evaluated meanwhile.
+   */
+  public void nextFrame() {
+    if (this.model == null) {
+      return;
+    }
+    int tick = clock.getTick();
+    FrameStats stats = this.stats;
+    long start = 0;
+    if (stats != null) {
+      stats.startFrame(lastShownTick < 0 ? 0 : Math.max(0, tick - lastShownTick - 1));
+      start = System.nanoTime();
+    }
+    this.lastShownTick = tick;
+    this.shownTick = tick;
+    this.nextTick = clock.getTickAfter(clock.getFrameDelay());
+    FrameBuffer frame = evaluator.frameAt(tick, getVisibleRect(), nextTick);
+    if (stats != null) {
+      stats.addEvaluate(System.nanoTime() - start);
+    }
+    Rectangle dirty = dirtyRegion.update(frame);
+    if (dirty != null) {
+      repaint(dirty);
+    }
+    if (stats != null && this.statsOverlay) {
+      this.overlayText = stats.getSummary();
+      Rectangle visible = getVisibleRect();
+      repaint(visible.x, visible.y, visible.width, OVERLAY_HEIGHT);
+    }
   }
 
   /**
-   * The paintComponent method paints the objects/shapes based on RGB values.
+   * The paintComponent method paints the objects/shapes based on RGB values. It draws the frame
+   * last shown by {@link #nextFrame}, clipped to the region being repainted. The frame is
+   * evaluated in parallel by the frame evaluator, normally ahead of time while the previous frame
+   * was drawn, so this method only does the draw calls. Only the shapes on screen at the tick, from
+   * their start time to the end of their last animation, are evaluated, and of those only the ones
+   * that overlap the clip are drawn; when the visible part of the panel does not take in the whole
+   * canvas, the shapes outside it are not even evaluated. In the accelerated mode the frame is
+   * drawn through the back buffer.
    *
    * @param graphics - graphics object passed in
    */
   public void paintComponent(Graphics graphics) {
-    super.paintComponent(graphics);
-
-
-    ArrayList<IShape2D> initialShapeList = model.getModelShapes();
-    int i = 0;
-    while (i < initialShapeList.size()) {
-      IShape2D shape = initialShapeList.get(i);
-
-      switch (shape.getType()) {
-        case Rectangle:
-          shape = shape.generateAnimatedShape(tick);
-          graphics.setColor(new Color((int) shape.getColor().getRed(),
-                  (int) shape.getColor().getGreen(),
-                  (int) shape.getColor().getBlue()));
-          graphics.fillRect((int) shape.getPosition().getX(), (int) shape.getPosition().getY(),
-                  (int) shape.getSizeArg1(), (int) shape.getSizeArg2());
-
-          break;
-
-
-        case Oval:
-          shape = shape.generateAnimatedShape(tick);
-
-          graphics.setColor(new Color((int) shape.getColor().getRed(),
-                  (int) shape.getColor().getGreen(),
-                  (int) shape.getColor().getBlue()));
+    if (this.model == null) {
+      super.paintComponent(graphics);
+      return;
+    }
 
-          graphics.fillOval((int) shape.getPosition().getX(), (int) shape.getPosition().getY(),
-                  (int) shape.getSizeArg1(), (int) shape.getSizeArg2());
-          break;
-        default:
-          return;
+    FrameStats stats = this.stats;
+    long start = stats == null ? 0 : System.nanoTime();
+    FrameBuffer frame = evaluator.frameAt(shownTick, getVisibleRect(), nextTick);
+    int drawn = this.accelerated ? paintAccelerated(graphics, frame) : -1;
+    if (drawn < 0) {
+      super.paintComponent(graphics);
+      drawn = renderer.draw(graphics, model.getModelShapes(), frame);
+    }
+    if (stats != null) {
+      stats.addPaint(System.nanoTime() - start, drawn, frame.getActiveCount() - drawn);
+      if (this.statsOverlay && this.overlayText != null) {
+        paintOverlay(graphics, this.overlayText);
       }
-      i++;
     }
+  }
+
+  /**
+   * Draws the summary of the frame statistics in a strip along the top of the visible part of the
+   * panel.
+   */
+  private void paintOverlay(Graphics graphics, String text) {
+    Rectangle visible = getVisibleRect();
+    graphics.setColor(OVERLAY_BACKGROUND);
+    graphics.fillRect(visible.x, visible.y, visible.width, OVERLAY_HEIGHT);
+    graphics.setColor(Color.WHITE);
+    graphics.drawString(text, visible.x + 4, visible.y + OVERLAY_HEIGHT - 5);
+  }
 
-    if (this.pauseCounter % 2 == 0) {
-      this.tick ++;
+  /**
+   * Draws a frame into the back buffer and copies it onto the graphics object. The back buffer
+   * keeps what it showed, so only the region being repainted is drawn again, unless the buffer is
+   * new or its contents were lost, in which case all of it is. Contents can be lost at any time,
+   * for example when the display mode changes, so the buffer is validated before drawing and the
+   * drawing is repeated until it was copied with its contents intact.
+   *
+   * @return the number of shapes drawn, or -1 if no back buffer can be created and the frame was
+   *         not drawn
+   */
+  private int paintAccelerated(Graphics graphics, FrameBuffer frame) {
+    int width = getWidth();
+    int height = getHeight();
+    if (width <= 0 || height <= 0) {
+      return -1;
     }
+    Rectangle clip = graphics.getClipBounds();
+    int drawn;
+    do {
+      boolean redrawAll = false;
+      if (this.backBuffer == null || this.backBuffer.getWidth() != width
+              || this.backBuffer.getHeight() != height) {
+        if (this.backBuffer != null) {
+          this.backBuffer.flush();
+        }
+        this.backBuffer = createVolatileImage(width, height);
+        if (this.backBuffer == null) {
+          return -1;
+        }
+        redrawAll = true;
+      }
+      int status = this.backBuffer.validate(getGraphicsConfiguration());
+      if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+        this.backBuffer.flush();
+        this.backBuffer = createVolatileImage(width, height);
+        if (this.backBuffer == null) {
+          return -1;
+        }
+        this.backBuffer.validate(getGraphicsConfiguration());
+        redrawAll = true;
+      } else if (status == VolatileImage.IMAGE_RESTORED) {
+        redrawAll = true;
+      }
 
+      Rectangle area = redrawAll || clip == null ? new Rectangle(0, 0, width, height) : clip;
+      Graphics2D bufferGraphics = this.backBuffer.createGraphics();
+      try {
+        bufferGraphics.clipRect(area.x, area.y, area.width, area.height);
+        bufferGraphics.setColor(getBackground());
+        bufferGraphics.fillRect(area.x, area.y, area.width, area.height);
+        drawn = renderer.draw(bufferGraphics, model.getModelShapes(), frame);
+      } finally {
+        bufferGraphics.dispose();
+      }
+      graphics.drawImage(this.backBuffer, 0, 0, null);
+    } while (this.backBuffer.contentsLost());
+    return drawn;
   }
 }
@@ -4,7 +4,7 @@ package view;
  * This enum represents the views supported by the animation.
  */
 public enum ViewType {
-  INTERACTIVE("interactive"),VISUAL("visual"), TEXT("text");
+  INTERACTIVE("interactive"),VISUAL("visual"), TEXT("text"), OFFSCREEN("offscreen"), SVG("svg");
 
   private final String viewType;
 
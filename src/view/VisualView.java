@@ -66,25 +66,30 @@ public class VisualView extends JFrame implements IView, ActionListener {
   }
 
   /**
-   * This method creates a view for the animation based on the model.
+   * This method creates a view for the animation based on the model. The animation is played back
+   * by the clock of the panel at the speed of the model, in ticks per second, and the timer only
+   * decides how often a frame is shown.
    *
    * @param model animation model required to create a view.
    * @return - a string
    */
   @Override
   public String createView(IAnimationModel model) {
-    Timer timer = new Timer(1000 / model.getTick(), this);
+    PlaybackClock clock = this.viewPanel.getClock();
+    clock.setSpeed(Math.max(1, model.getTick()));
+    clock.setTick(0);
+    Timer timer = new Timer(clock.getFrameDelay(), this);
     timer.start();
     return "";
   }
 
   /**
-   * The actionPerformed method makes objects update based on the repaint method.
+   * The actionPerformed method moves the panel on to the next frame, repainting what changed.
    *
    * @param event - object of event that is working on the animation
    */
   @Override
   public void actionPerformed(ActionEvent event) {
-    repaint();
+    this.viewPanel.nextFrame();
   }
 }
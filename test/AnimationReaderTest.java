@@ -0,0 +1,245 @@
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import model.PackedAnimationModel;
+import util.AnimationReader;
+import util.SceneGenerator;
+import view.TextView;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents the test suite for the AnimationReader class and tests parsing from both
+ * character and byte sources along with the error messages for malformed input.
+ */
+public class AnimationReaderTest {
+
+  private static final String SCENE = "# a small scene\n"
+          + "canvas 200 70 360 360\n"
+          + "shape R rectangle\n"
+          + "motion R 1  200 200 50 100 255 0  0    10  200 200 50 100 255 0  0\n"
+          + "motion R 10 200 200 50 100 255 0  0    50  300 300 50 100 255 0  0 # moves\n"
+          + "shape C ellipse#no space before the comment\n"
+          + "motion C 6  440 70 120 60 0 0 255\n"
+          + "         20 440 70 120 60 0 0 255\n"
+          + "motion C 20 440 70 120 60 0 0 255      50 440 250 120 60 0 0 255\n";
+
+  @Test
+  public void parseReadableTest() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader(SCENE),
+            new AnimationModelImpl.Builder());
+    assertEquals(2, model.getModelShapes().size());
+    assertEquals("R", model.getModelShapes().get(0).getName());
+    assertEquals(1, model.getModelShapes().get(0).getStartTime());
+    assertEquals(1, model.getModelShapes().get(0).getAnimation().size());
+    assertEquals("C", model.getModelShapes().get(1).getName());
+    assertEquals(6, model.getModelShapes().get(1).getStartTime());
+    assertEquals(50, model.getModelShapes().get(1).getAnimation().get(0).getEndTime());
+  }
+
+  @Test
+  public void parseChannelTest() {
+    IAnimationModel model = AnimationReader.parseFile(Channels.newChannel(
+            new ByteArrayInputStream(SCENE.getBytes(StandardCharsets.US_ASCII))),
+            new AnimationModelImpl.Builder());
+    assertEquals(2, model.getModelShapes().size());
+    assertEquals(300, model.getModelShapes().get(0).generateAnimatedShape(51)
+            .getPosition().getX(), 0.001);
+    assertEquals(440, model.getModelShapes().get(1).getPosition().getX(), 0.001);
+  }
+
+  @Test
+  public void parseMappedFileTest() throws IOException {
+    Path file = Files.createTempFile("scene", ".txt");
+    try {
+      Files.write(file, SCENE.getBytes(StandardCharsets.US_ASCII));
+      IAnimationModel model = AnimationReader.parseMappedFile(file,
+              new AnimationModelImpl.Builder());
+      assertEquals(2, model.getModelShapes().size());
+      assertEquals("C", model.getModelShapes().get(1).getName());
+      assertEquals(1, model.getModelShapes().get(1).getAnimation().size());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void parseFileParallelTest() throws IOException {
+    Path file = Files.createTempFile("scene", ".txt");
+    try {
+      Files.write(file, SCENE.getBytes(StandardCharsets.US_ASCII));
+      IAnimationModel model = AnimationReader.parseFileParallel(file,
+              new AnimationModelImpl.Builder(), new ForkJoinPool(3), 16);
+      assertEquals(2, model.getModelShapes().size());
+      assertEquals("R", model.getModelShapes().get(0).getName());
+      assertEquals(1, model.getModelShapes().get(0).getAnimation().size());
+      assertEquals(6, model.getModelShapes().get(1).getStartTime());
+      assertEquals(50, model.getModelShapes().get(1).getAnimation().get(0).getEndTime());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void parseFileParallelLongStatementTest() throws IOException {
+    StringBuilder text = new StringBuilder("canvas 0 0 100 100\nshape R rectangle\n");
+    // a comment and a statement many chunks long, so that chunk boundaries fall inside both
+    for (int i = 0; i < 40; i++) {
+      text.append("# motion R is described below, over several lines\n");
+    }
+    text.append("motion R 1 10 10 20 20 255 0 0\n");
+    for (int i = 0; i < 40; i++) {
+      text.append("                                   \n");
+    }
+    text.append("         9 10 10 20 20 255 0 0\n");
+    for (int t = 10; t < 1200; t += 10) {
+      text.append("motion R ").append(t - 1).append(" 10 10 20 20 255 0 0 ").append(t + 9)
+              .append(" 10 10 20 20 255 0 0\n");
+    }
+    Path file = Files.createTempFile("scene", ".txt");
+    try {
+      Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+      IAnimationModel model = AnimationReader.parseFileParallel(file,
+              new AnimationModelImpl.Builder(), new ForkJoinPool(3), 64);
+      IAnimationModel expected = AnimationReader.parseFile(new StringReader(text.toString()),
+              new AnimationModelImpl.Builder());
+      assertEquals(new TextView().createView(expected), new TextView().createView(model));
+      assertEquals(1, model.getModelShapes().get(0).getStartTime());
+      assertEquals(1199, model.getEndTime());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void parseFileParallelErrorTest() throws IOException {
+    Path file = Files.createTempFile("scene", ".txt");
+    try {
+      Files.write(file, (SCENE + "motion C 50 x\n" + SCENE).getBytes(StandardCharsets.US_ASCII));
+      AnimationReader.parseFileParallel(file, new AnimationModelImpl.Builder(),
+              new ForkJoinPool(3), 16);
+    } catch (IllegalStateException ex) {
+      assertEquals("Motion: expected integer for initial x-coordinate, got: x", ex.getMessage());
+      return;
+    } finally {
+      Files.delete(file);
+    }
+    throw new AssertionError("Expected an IllegalStateException");
+  }
+
+  @Test
+  public void parseFileParallelManyShapesTest() throws IOException {
+    StringBuilder text = new StringBuilder();
+    new SceneGenerator(11).setShapeCount(60).setMotionsPerShape(15).write(text);
+    Path file = Files.createTempFile("scene", ".txt");
+    try {
+      Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+      // chunks of a few lines each, so that the motions of every shape span many chunks
+      IAnimationModel model = AnimationReader.parseFileParallel(file,
+              new PackedAnimationModel.Builder(), new ForkJoinPool(3), 200);
+      IAnimationModel expected = AnimationReader.parseFile(new StringReader(text.toString()),
+              new PackedAnimationModel.Builder());
+      assertEquals(new TextView().createView(expected), new TextView().createView(model));
+      assertEquals(expected.getEndTime(), model.getEndTime());
+      assertEquals(expected.getModificationCount(), model.getModificationCount());
+      assertEquals(expected.getCanvasWidth(), model.getCanvasWidth());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void parseFileParallelFirstErrorTest() throws IOException {
+    StringBuilder text = new StringBuilder("canvas 0 0 100 100\n"
+            + "shape A rectangle\nshape B ellipse\n"
+            + "motion A 1 0 0 5 5 0 0 0 10 0 0 5 5 0 0 0\n"
+            + "motion A 1 0 0 5 5 0 0 0 10 9 9 5 5 0 0 0\n");
+    for (int t = 1; t < 300; t += 10) {
+      text.append("motion B ").append(t).append(" 0 0 5 5 0 0 0 ").append(t + 10)
+              .append(" 9 9 5 5 0 0 0\n");
+    }
+    // A overlaps first, then B ends before it starts and a line cannot be read
+    text.append("motion A 5 0 0 5 5 0 0 0 15 0 0 5 5 0 0 0\n");
+    text.append("motion B 301 0 0 5 5 0 0 0 299 9 9 5 5 255 0 0\n");
+    text.append("motion B 320 x\n");
+    Path file = Files.createTempFile("scene", ".txt");
+    try {
+      Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+      AnimationReader.parseFileParallel(file, new AnimationModelImpl.Builder(),
+              new ForkJoinPool(3), 30);
+    } catch (IllegalArgumentException ex) {
+      assertEquals("Overlapping animations cannot be executed.", ex.getMessage());
+      return;
+    } finally {
+      Files.delete(file);
+    }
+    throw new AssertionError("Expected an IllegalArgumentException");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readMissingFileTest() {
+    AnimationReader.readFile("files/no-such-scene.txt", new AnimationModelImpl.Builder());
+  }
+
+  @Test
+  public void negativeCanvasTest() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader(
+            "canvas -203 -202 1205 1204\nshape P ellipse\n"
+                    + "motion P 1 -5 -6 10 10 0 0 0 2 -5 -6 10 10 0 0 0"),
+            new AnimationModelImpl.Builder());
+    assertEquals(-5, model.getModelShapes().get(0).getPosition().getX(), 0.001);
+    assertEquals(-6, model.getModelShapes().get(0).getPosition().getY(), 0.001);
+  }
+
+  @Test
+  public void unexpectedKeywordMessageTest() {
+    try {
+      AnimationReader.parseFile(new StringReader("shape R rectangle\nrotate R 90 degrees\n"),
+              new AnimationModelImpl.Builder());
+    } catch (IllegalStateException ex) {
+      assertEquals("Unexpected keyword: rotate R 90 degrees", ex.getMessage());
+      return;
+    }
+    throw new AssertionError("Expected an IllegalStateException");
+  }
+
+  @Test
+  public void badIntegerMessageTest() {
+    try {
+      AnimationReader.parseFile(new StringReader("canvas 0 0 12x 100\n"),
+              new AnimationModelImpl.Builder());
+    } catch (IllegalStateException ex) {
+      assertEquals("Canvas: expected integer for width, got: 12x", ex.getMessage());
+      return;
+    }
+    throw new AssertionError("Expected an IllegalStateException");
+  }
+
+  @Test
+  public void missingIntegerMessageTest() {
+    try {
+      AnimationReader.parseFile(new StringReader("shape R rectangle\nmotion R 1 2 3 # cut\n"),
+              new AnimationModelImpl.Builder());
+    } catch (IllegalStateException ex) {
+      assertEquals("Motion: expected integer for initial width, but no more input "
+              + "available", ex.getMessage());
+      return;
+    }
+    throw new AssertionError("Expected an IllegalStateException");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void missingShapeTypeTest() {
+    AnimationReader.parseFile(new StringReader("shape R"), new AnimationModelImpl.Builder());
+  }
+}
@@ -0,0 +1,107 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import model.shapes.Rectangle;
+import util.Color;
+import util.Position;
+import util.AnimationReader;
+import util.BinaryAnimationReader;
+import util.BinaryAnimationWriter;
+import view.TextView;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents the test suite for the binary scene format, written by the
+ * BinaryAnimationWriter class and read by the BinaryAnimationReader class.
+ */
+public class BinaryAnimationReaderTest {
+
+  private static final String SCENE = "canvas 200 70 360 360\n"
+          + "shape R rectangle\n"
+          + "shape C ellipse\n"
+          + "motion R 1  200 200 50 100 255 0  0    10  200 200 50 100 255 0  0\n"
+          + "motion R 10 200 200 50 100 255 0  0    50  300 300 50 100 255 0  0\n"
+          + "motion R 51 300 300 50 100 255 0  0    70  300 300 25 100 255 0  0\n"
+          + "motion C 6  440 70 120 60 0 0 255      20 440 70 120 60 0 0 255\n"
+          + "motion C 50 440 250 120 60 0 0 255     70 440 370 120 60 0 170 85\n";
+
+  private static byte[] write(IAnimationModel model) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryAnimationWriter.write(model, Channels.newChannel(bytes));
+    return bytes.toByteArray();
+  }
+
+  @Test
+  public void roundTripTest() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader(SCENE),
+            new AnimationModelImpl.Builder());
+    IAnimationModel copy = BinaryAnimationReader.parse(ByteBuffer.wrap(write(model)),
+            new AnimationModelImpl.Builder());
+
+    assertEquals(200, copy.getCanvasX());
+    assertEquals(70, copy.getCanvasY());
+    assertEquals(360, copy.getCanvasWidth());
+    assertEquals(360, copy.getCanvasHeight());
+    assertEquals(new TextView().createView(model), new TextView().createView(copy));
+  }
+
+  @Test
+  public void recordSizeTest() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader(SCENE),
+            new AnimationModelImpl.Builder());
+    // header 8, canvas 16, shape table 4 + 2 * 4, motion count 4, and five 68-byte motions
+    assertEquals(8 + 16 + 12 + 4 + 5 * 68, write(model).length);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void wrongMagicTest() {
+    BinaryAnimationReader.parse(ByteBuffer.wrap("canvas 0 0 1 1".getBytes()),
+            new AnimationModelImpl.Builder());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void truncatedSceneTest() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader(SCENE),
+            new AnimationModelImpl.Builder());
+    byte[] bytes = write(model);
+    BinaryAnimationReader.parse(ByteBuffer.wrap(bytes, 0, bytes.length - 1),
+            new AnimationModelImpl.Builder());
+  }
+
+  @Test
+  public void shapeTableFillsBufferTest() {
+    // 28 bytes of header and 18720 entries of a four-letter name and one of a six-letter name
+    // leave two bytes of the 128 KB buffer for the four-byte motion count
+    IAnimationModel model = new AnimationModelImpl();
+    for (int i = 0; i < 18719; i++) {
+      model.addShape(new Rectangle(String.format("%04x", i), new Position(i, 0),
+              new Color(0, 0, 0), 1, 100, 1, 1));
+    }
+    model.addShape(new Rectangle("last00", new Position(0, 0), new Color(0, 0, 0), 1, 100, 1, 1));
+    IAnimationModel copy = BinaryAnimationReader.parse(ByteBuffer.wrap(write(model)),
+            new AnimationModelImpl.Builder());
+
+    assertEquals(18720, copy.getModelShapes().size());
+    assertEquals("491e", copy.getModelShapes().get(18718).getName());
+    assertEquals(18718, copy.getModelShapes().get(18718).getPosition().getX(), 0);
+    assertEquals("last00", copy.getModelShapes().get(18719).getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nameTooLongTest() {
+    IAnimationModel model = new AnimationModelImpl();
+    char[] name = new char[0x10000];
+    Arrays.fill(name, 'n');
+    model.addShape(new Rectangle(new String(name), new Position(0, 0), new Color(0, 0, 0), 1, 100,
+            1, 1));
+    write(model);
+  }
+}
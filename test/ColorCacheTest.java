@@ -0,0 +1,36 @@
+import org.junit.Test;
+
+import java.awt.Color;
+
+import view.ColorCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the color cache of the renderer.
+ */
+public class ColorCacheTest {
+
+  @Test
+  public void testSameColorIsReused() {
+    ColorCache cache = new ColorCache();
+    Color red = cache.get(0xFF0000);
+    assertEquals(new Color(255, 0, 0), red);
+    assertSame(red, cache.get(0xFF0000));
+    // the alpha byte does not make a different color
+    assertSame(red, cache.get(0xFFFF0000));
+    assertEquals(new Color(0, 128, 255), cache.get(0x0080FF));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testCacheStaysBounded() {
+    ColorCache cache = new ColorCache();
+    for (int rgb = 0; rgb < 100000; rgb++) {
+      assertEquals(rgb, cache.get(rgb).getRGB() & 0xFFFFFF);
+      assertTrue(cache.size() <= 2048);
+    }
+  }
+}
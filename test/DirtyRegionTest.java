@@ -0,0 +1,63 @@
+import org.junit.Test;
+
+import java.awt.Rectangle;
+
+import model.AnimationModelImpl;
+import model.FrameBuffer;
+import model.IAnimationModel;
+import model.animations.ColorChange;
+import model.animations.Move;
+import util.Color;
+import util.Position;
+import view.DirtyRegion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class represents the test suite for the DirtyRegion class, which finds the region of a
+ * panel that changes from one frame to the next.
+ */
+public class DirtyRegionTest {
+
+  @Test
+  public void testUpdate() {
+    IAnimationModel model = new AnimationModelImpl();
+    model.addShape(new model.shapes.Rectangle("Still", new Position(0, 0),
+            new Color(0, 0, 0), 0, 100, 10, 10));
+    model.addShape(new model.shapes.Rectangle("Mover", new Position(100, 100),
+            new Color(0, 0, 0), 0, 100, 10, 20));
+    model.addShape(new model.shapes.Rectangle("Late", new Position(50, 60),
+            new Color(0, 0, 0), 5, 100, 4, 4));
+    model.addAnimation(new Move("Still", 0, 20, new Position(0, 0), new Position(0, 0)));
+    model.addAnimation(new Move("Mover", 0, 10, new Position(100, 100),
+            new Position(110, 100)));
+    model.addAnimation(new ColorChange("Late", 5, 6, new Color(0, 0, 0),
+            new Color(255, 0, 0)));
+    FrameBuffer frame = new FrameBuffer();
+    DirtyRegion region = new DirtyRegion();
+
+    // Everything is new at first.
+    model.evaluateFrame(0, frame);
+    assertEquals(new Rectangle(0, 0, 110, 120), region.update(frame));
+
+    // The mover moves one pixel, the still shape is left alone.
+    model.evaluateFrame(1, frame);
+    assertEquals(new Rectangle(100, 100, 11, 20), region.update(frame));
+    assertNull(region.update(frame));
+
+    // The late shape appears and the mover moves on.
+    model.evaluateFrame(5, frame);
+    assertEquals(new Rectangle(50, 60, 65, 60), region.update(frame));
+
+    // The late shape changes color and the mover moves on.
+    model.evaluateFrame(6, frame);
+    assertEquals(new Rectangle(50, 60, 66, 60), region.update(frame));
+
+    // Both disappear after their last animation, and the mover comes back when going back.
+    model.evaluateFrame(11, frame);
+    assertEquals(new Rectangle(50, 60, 66, 60), region.update(frame));
+    model.evaluateFrame(7, frame);
+    assertEquals(new Rectangle(107, 100, 10, 20), region.update(frame));
+  }
+}
@@ -0,0 +1,44 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import util.FastFormat;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the fixed-point formatting of FastFormat against String.format.
+ */
+public class FastFormatTest {
+
+  private static void assertSameAsFormat(double value) {
+    assertEquals(String.valueOf(value), String.format("%.2f", value),
+            FastFormat.appendFixed2(new StringBuilder(), value).toString());
+  }
+
+  @Test
+  public void testRounding() {
+    double[] values = {0, -0.0, 1, 0.5, 0.005, 0.015, 0.125, 1.995, 9.995, 99.999, -99.999,
+        -0.004, -0.005, 12.345, 2.675, 0.001, 0.0009, 1e-5, 123456.785, 9999999.995, 1e7, 1e300,
+        Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE};
+    for (double value : values) {
+      assertSameAsFormat(value);
+    }
+  }
+
+  @Test
+  public void testRandomValues() {
+    Random random = new Random(7);
+    for (int i = 0; i < 100000; i++) {
+      assertSameAsFormat((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10) - 3));
+      assertSameAsFormat(random.nextInt(100000) / 1000.0);
+    }
+  }
+
+  @Test
+  public void testAppendsToExistingText() {
+    StringBuilder out = new StringBuilder("radius: ");
+    FastFormat.appendFixed2(out, 9.999);
+    assertEquals("radius: 10.00", out.toString());
+  }
+}
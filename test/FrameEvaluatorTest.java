@@ -0,0 +1,163 @@
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import model.AnimationModelImpl;
+import model.FrameBuffer;
+import model.ShapeSchedule;
+import model.animations.Move;
+import model.shapes.Rectangle;
+import util.Color;
+import util.Position;
+import view.FrameEvaluator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents the test suite for the FrameEvaluator class, which evaluates frames in
+ * parallel slices and one frame ahead of the one that is drawn.
+ */
+public class FrameEvaluatorTest {
+  private static final int SHAPES = 10000;
+
+  /**
+   * A model that records every range of the active list it is asked to evaluate.
+   */
+  private static final class RecordingModel extends AnimationModelImpl {
+    private final ConcurrentLinkedQueue<int[]> ranges = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void evaluateActive(int tick, FrameBuffer frame, int from, int to) {
+      this.ranges.add(new int[]{tick, from, to});
+      super.evaluateActive(tick, frame, from, to);
+    }
+
+    private void evaluateUnrecorded(int tick, FrameBuffer frame) {
+      super.evaluateActive(tick, frame, 0, frame.getActiveCount());
+    }
+
+    private int evaluated(int tick) {
+      int count = 0;
+      for (int[] range : this.ranges) {
+        if (range[0] == tick) {
+          count += range[2] - range[1];
+        }
+      }
+      return count;
+    }
+  }
+
+  private static RecordingModel model() {
+    RecordingModel model = new RecordingModel();
+    model.setCanvas(0, 0, 1000, 1000);
+    for (int i = 0; i < SHAPES; i++) {
+      String name = "S" + i;
+      // a few shapes appear late, so the number on screen changes over the ticks
+      int start = i % 50 == 0 ? 30 : 0;
+      model.addShape(new Rectangle(name, new Position(i % 1000, i / 10), new Color(i % 256, 0, 0),
+              start, 100, 5, 5));
+      model.addAnimation(new Move(name, start, start + 40, new Position(i % 1000, i / 10),
+              new Position(i / 10, i % 1000)));
+    }
+    return model;
+  }
+
+  private static void assertSameFrame(RecordingModel model, int tick, FrameBuffer frame) {
+    FrameBuffer expected = new FrameBuffer();
+    ShapeSchedule schedule = new ShapeSchedule(model.getModelShapes());
+    schedule.advanceTo(tick);
+    schedule.copyActiveTo(expected);
+    model.evaluateUnrecorded(tick, expected);
+
+    assertEquals(tick, frame.getTick());
+    assertEquals(expected.getActiveCount(), frame.getActiveCount());
+    for (int position = 0; position < expected.getActiveCount(); position++) {
+      int i = expected.getActive(position);
+      assertEquals(i, frame.getActive(position));
+      assertEquals(expected.getX(i), frame.getX(i), 1e-9);
+      assertEquals(expected.getY(i), frame.getY(i), 1e-9);
+      assertEquals(expected.getWidth(i), frame.getWidth(i), 1e-9);
+      assertEquals(expected.getRgb(i), frame.getRgb(i));
+    }
+  }
+
+  @Test
+  public void testSlicedFramesMatchSequential() {
+    RecordingModel model = model();
+    FrameEvaluator evaluator = new FrameEvaluator(new ForkJoinPool(2));
+    evaluator.setModel(model);
+    for (int tick = 0; tick <= 50; tick += 5) {
+      assertSameFrame(model, tick, evaluator.frameAt(tick));
+    }
+
+    // every frame was split into slices of at most 4096 shapes that cover it once
+    model.ranges.clear();
+    FrameBuffer frame = evaluator.frameAt(35);
+    assertSameFrame(model, 35, frame);
+    assertTrue(frame.getActiveCount() > 2 * 4096);
+    int slices = 0;
+    for (int[] range : model.ranges) {
+      if (range[0] == 35) {
+        assertTrue(range[2] - range[1] <= 4096);
+        slices++;
+      }
+    }
+    assertTrue(slices >= 3);
+    assertEquals(frame.getActiveCount(), model.evaluated(35));
+  }
+
+  @Test
+  public void testNextFramePrefetched() {
+    RecordingModel model = model();
+    FrameEvaluator evaluator = new FrameEvaluator(new ForkJoinPool(2));
+    evaluator.setModel(model);
+    FrameBuffer first = evaluator.frameAt(10);
+    int active = first.getActiveCount();
+
+    // tick 11 was evaluated ahead into the other buffer, which is swapped in
+    FrameBuffer second = evaluator.frameAt(11);
+    assertFalse(first == second);
+    assertEquals(active, model.evaluated(11));
+    assertSameFrame(model, 11, second);
+
+    // a tick that was not expected is evaluated on the spot, and the one after it ahead
+    FrameBuffer skipped = evaluator.frameAt(20, null, 25);
+    assertSameFrame(model, 20, skipped);
+    assertSameFrame(model, 25, evaluator.frameAt(25));
+    assertEquals(active, model.evaluated(25));
+  }
+
+  @Test
+  public void testPausedFrameReused() {
+    RecordingModel model = model();
+    FrameEvaluator evaluator = new FrameEvaluator(new ForkJoinPool(2));
+    evaluator.setModel(model);
+    FrameBuffer frame = evaluator.frameAt(12, null, 12);
+    int evaluated = model.evaluated(12);
+
+    // while paused the same frame is asked for again, and nothing is evaluated
+    assertSame(frame, evaluator.frameAt(12, null, 12));
+    assertSame(frame, evaluator.frameAt(12, null, 12));
+    assertEquals(evaluated, model.evaluated(12));
+    assertEquals(frame.getActiveCount(), evaluated);
+  }
+
+  @Test
+  public void testFramesFollowModelChanges() {
+    RecordingModel model = model();
+    FrameEvaluator evaluator = new FrameEvaluator(new ForkJoinPool(2));
+    evaluator.setModel(model);
+    int before = evaluator.frameAt(20).getActiveCount();
+
+    // the frame for tick 21 evaluated ahead is dropped once the model has changed
+    model.addShape(new Rectangle("New", new Position(1, 1), new Color(0, 0, 255), 0, 100, 3, 3));
+    model.addAnimation(new Move("New", 0, 60, new Position(1, 1), new Position(99, 99)));
+    FrameBuffer frame = evaluator.frameAt(21);
+    assertEquals(before + 1, frame.getActiveCount());
+    assertSameFrame(model, 21, frame);
+  }
+}
@@ -0,0 +1,135 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.AnimationModelImpl;
+import model.FrameBuffer;
+import model.IAnimationModel;
+import model.animations.Move;
+import model.shapes.Rectangle;
+import util.Color;
+import util.Position;
+import view.FrameExportPipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents the test suite for the FrameExportPipeline class, which renders, encodes
+ * and writes frames on separate threads.
+ */
+public class FrameExportPipelineTest {
+
+  /**
+   * A model that counts the frames started on it and fails when asked for a given tick.
+   */
+  private static class TracingModel extends AnimationModelImpl {
+    private final AtomicInteger started = new AtomicInteger();
+    private final int failAt;
+    private final Throwable failure;
+
+    private TracingModel(int failAt, Throwable failure) {
+      this.failAt = failAt;
+      this.failure = failure;
+      setCanvas(0, 0, 20, 10);
+      addShape(new Rectangle("R", new Position(0, 0), new Color(255, 0, 0), 1, 60, 4, 4));
+      addAnimation(new Move("R", 1, 60, new Position(0, 0), new Position(16, 6)));
+    }
+
+    @Override
+    public void evaluateFrame(int tick, FrameBuffer frame) {
+      this.started.incrementAndGet();
+      if (tick == this.failAt) {
+        if (this.failure instanceof Error) {
+          throw (Error) this.failure;
+        }
+        throw (RuntimeException) this.failure;
+      }
+      super.evaluateFrame(tick, frame);
+    }
+  }
+
+  @Test
+  public void framesWrittenInTickOrderTest() throws IOException {
+    // every third frame takes longer, so that frames finish out of order
+    IAnimationModel model = new TracingModel(-1, null) {
+      @Override
+      public void evaluateFrame(int tick, FrameBuffer frame) {
+        if (tick % 3 == 0) {
+          try {
+            Thread.sleep(3);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        super.evaluateFrame(tick, frame);
+      }
+    };
+    List<Integer> ticks = new ArrayList<>();
+    new FrameExportPipeline(4, 3, 3).export(model, 0, 60, FrameExportPipeline.Format.RAW,
+            (tick, data) -> {
+              assertEquals(20 * 10 * 3, data.length);
+              ticks.add(tick);
+            });
+
+    assertEquals(61, ticks.size());
+    for (int i = 0; i < ticks.size(); i++) {
+      assertEquals(i, (int) ticks.get(i));
+    }
+  }
+
+  @Test
+  public void slowSinkBoundsFramesInFlightTest() throws IOException {
+    TracingModel model = new TracingModel(-1, null);
+    int[] written = {0};
+    int[] mostInFlight = {0};
+    new FrameExportPipeline(4, 2, 5).export(model, 0, 40, FrameExportPipeline.Format.PNG,
+            (tick, data) -> {
+              // the frames started but not yet written, this one included
+              mostInFlight[0] = Math.max(mostInFlight[0], model.started.get() - written[0]);
+              try {
+                Thread.sleep(2);
+              } catch (InterruptedException ex) {
+                throw new IOException("Interrupted");
+              }
+              written[0]++;
+            });
+
+    assertEquals(41, written[0]);
+    assertEquals(41, model.started.get());
+    assertTrue(mostInFlight[0] >= 1 && mostInFlight[0] <= 5);
+  }
+
+  @Test(timeout = 10000)
+  public void renderErrorReachesCallerTest() throws IOException {
+    TracingModel model = new TracingModel(7, new OutOfMemoryError("Test error"));
+    List<Integer> ticks = new ArrayList<>();
+    try {
+      new FrameExportPipeline(3, 2, 4).export(model, 0, 30, FrameExportPipeline.Format.RAW,
+              (tick, data) -> ticks.add(tick));
+    } catch (OutOfMemoryError ex) {
+      assertEquals("Test error", ex.getMessage());
+      assertEquals(7, ticks.size());
+      return;
+    }
+    throw new AssertionError("Expected an OutOfMemoryError");
+  }
+
+  @Test(timeout = 10000)
+  public void renderExceptionReachesCallerTest() throws IOException {
+    TracingModel model = new TracingModel(0, new IllegalStateException("Test failure"));
+    try {
+      new FrameExportPipeline(2, 2, 2).export(model, 0, 30, FrameExportPipeline.Format.PNG,
+              (tick, data) -> {
+                throw new AssertionError("No frame should be written");
+              });
+    } catch (IllegalStateException ex) {
+      assertEquals("Test failure", ex.getMessage());
+      return;
+    }
+    throw new AssertionError("Expected an IllegalStateException");
+  }
+}
@@ -0,0 +1,77 @@
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.StringReader;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import util.AnimationReader;
+import view.FrameStats;
+import view.ViewPanel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the frame statistics and their recording by the view panel.
+ */
+public class FrameStatsTest {
+
+  @Test
+  public void testPercentilesOfRecentFrames() {
+    FrameStats stats = new FrameStats(4);
+    for (int frame = 1; frame <= 6; frame++) {
+      stats.startFrame(frame % 2);
+      stats.addEvaluate(frame * 1_000_000L);
+      stats.addPaint(100, frame, 10 - frame);
+    }
+    // the sixth frame is published when the next one starts
+    stats.startFrame(0);
+
+    assertEquals(6, stats.getFrameCount());
+    assertEquals(3, stats.getDroppedTicks());
+    // only frames 3 to 6 are kept
+    assertEquals(3_000_000L, stats.percentile(FrameStats.EVALUATE_NANOS, 0));
+    assertEquals(4_000_000L, stats.percentile(FrameStats.EVALUATE_NANOS, 0.5));
+    assertEquals(6.0, stats.getEvaluateMillis99th(), 1e-9);
+    assertEquals(4.0, stats.getShapesDrawnMedian(), 1e-9);
+    assertEquals(5.0, stats.getShapesCulledMedian(), 1e-9);
+
+    stats.reset();
+    assertEquals(0, stats.getFrameCount());
+    assertEquals(0, stats.getDroppedTicks());
+    assertEquals(0, stats.percentile(FrameStats.PAINT_NANOS, 0.5));
+  }
+
+  @Test
+  public void testPanelRecordsFrames() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader("canvas 0 0 100 100\n"
+            + "shape R rectangle\n"
+            + "shape O ellipse\n"
+            + "motion R 1 10 10 20 20 255 0 0    1 10 10 20 20 255 0 0\n"
+            + "motion R 1 10 10 20 20 255 0 0    50 60 10 20 20 255 0 0\n"
+            + "motion O 1 70 70 10 10 0 0 255    1 70 70 10 10 0 0 255\n"
+            + "motion O 1 70 70 10 10 0 0 255    50 70 70 10 10 0 0 255\n"),
+            new AnimationModelImpl.Builder());
+    ViewPanel panel = new ViewPanel();
+    FrameStats stats = new FrameStats();
+    panel.setFrameStats(stats);
+    panel.setModel(model);
+    panel.setSize(100, 100);
+    panel.getClock().pause();
+    BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+    for (int tick : new int[]{1, 2, 5, 6}) {
+      panel.setTick(tick);
+      panel.nextFrame();
+      panel.paintComponent(image.createGraphics());
+    }
+    panel.nextFrame();
+
+    assertEquals(4, stats.getFrameCount());
+    // ticks 3 and 4 were skipped
+    assertEquals(2, stats.getDroppedTicks());
+    assertEquals(2.0, stats.getShapesDrawnMedian(), 1e-9);
+    assertTrue(stats.percentile(FrameStats.PAINT_NANOS, 1) > 0);
+    assertTrue(stats.getSummary().startsWith("eval "));
+  }
+}
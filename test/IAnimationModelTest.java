@@ -3,12 +3,15 @@ import org.junit.Test;
 import controller.IAnimationController;
 import controller.IAnimationControllerImpl;
 import model.AnimationModelImpl;
+import model.FrameBuffer;
 import model.IAnimationModel;
+import model.PackedAnimationModel;
 import model.animations.IAnimation;
 import model.animations.Move;
 import model.shapes.IShape2D;
 import model.shapes.Oval;
 import model.shapes.Rectangle;
+import util.AnimationReader;
 import util.Color;
 import util.Position;
 
@@ -71,6 +74,34 @@ public class IAnimationModelTest {
     model.removeShape(rectangle);
   }
 
+  @Test
+  public void getShapeTest() {
+    model.addShape(rectangle);
+    model.addShape(oval);
+    assertTrue(model.hasShape("R"));
+    assertTrue(model.getShape("R") == rectangle);
+    assertTrue(model.getShape("C") == oval);
+    model.removeShape(rectangle);
+    assertFalse(model.hasShape("R"));
+    assertTrue(model.hasShape("C"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getNonExistentShapeTest() {
+    model.addShape(oval);
+    model.getShape("R");
+  }
+
+  @Test
+  public void addAnimationByNameTest() {
+    model.addShape(rectangle);
+    model.addShape(oval);
+    model.addAnimation(new Move("C", 10, 20, new Position(500, 100),
+            new Position(600, 100)));
+    assertEquals(1, oval.getAnimation().size());
+    assertTrue(rectangle.getAnimation().isEmpty());
+  }
+
   @Test
   public void getEndTimeTest() {
     IAnimation move = new Move("R", 5, 10, new Position(3, 3),
@@ -80,6 +111,25 @@ public class IAnimationModelTest {
     assertEquals(100, model.getEndTime());
   }
 
+  @Test
+  public void getEndTimeEmptyModelTest() {
+    assertEquals(0, model.getEndTime());
+  }
+
+  @Test
+  public void getEndTimeUpdatesTest() {
+    model.addShape(oval);
+    assertEquals(100, model.getEndTime());
+    model.addShape(rectangle);
+    model.addAnimation(new Move("R", 90, 150, new Position(200, 200),
+            new Position(300, 300)));
+    assertEquals(150, model.getEndTime());
+    model.removeShape(rectangle);
+    assertEquals(100, model.getEndTime());
+    model.removeShape(oval);
+    assertEquals(0, model.getEndTime());
+  }
+
   @Test
   public void getAndSetTickTest() {
     IAnimationModel model = new AnimationModelImpl();
@@ -99,4 +149,30 @@ public class IAnimationModelTest {
         "80"};
     IAnimationController controller = new IAnimationControllerImpl(null, args);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void packedEvaluateFrameTest() {
+    IAnimationModel plain = AnimationReader.readFile("files/toh-3.txt",
+            new AnimationModelImpl.Builder());
+    IAnimationModel packed = AnimationReader.readFile("files/toh-3.txt",
+            new PackedAnimationModel.Builder());
+    FrameBuffer expected = new FrameBuffer();
+    FrameBuffer actual = new FrameBuffer();
+
+    // Play forward, then seek backwards and forwards again.
+    int[] ticks = {0, 1, 2, 3, 50, 51, 52, 300, 10, 11, 1000, 5};
+    for (int tick : ticks) {
+      plain.evaluateFrame(tick, expected);
+      packed.evaluateFrame(tick, actual);
+      assertEquals(expected.getSize(), actual.getSize());
+      for (int i = 0; i < expected.getSize(); i++) {
+        assertEquals(expected.getX(i), actual.getX(i), 0.001);
+        assertEquals(expected.getY(i), actual.getY(i), 0.001);
+        assertEquals(expected.getWidth(i), actual.getWidth(i), 0.001);
+        assertEquals(expected.getHeight(i), actual.getHeight(i), 0.001);
+        assertEquals(expected.getRgb(i), actual.getRgb(i));
+        assertEquals(expected.isVisible(i), actual.isVisible(i));
+      }
+    }
+  }
+}
@@ -171,6 +171,26 @@ public class IAnimationTest {
             illegalColorChange.animationDescription(model));
   }
 
+  @Test
+  public void timelineOrderAndActiveTest() {
+    AnimationModelImpl newModel = new AnimationModelImpl();
+    IShape2D rect = new Rectangle("R1", new Position(0, 0),
+            new Color(0, 0, 0), 0, 100, 10, 10);
+    newModel.addShape(rect);
+    IAnimation late = new Move("R1", 30, 40, new Position(0, 0), new Position(5, 5));
+    IAnimation early = new Move("R1", 0, 10, new Position(0, 0), new Position(1, 1));
+    IAnimation middle = new Scale("R1", 10, 30, 10, 10, 5, 5);
+    newModel.addAnimation(late);
+    newModel.addAnimation(early);
+    newModel.addAnimation(middle);
+
+    assertEquals(early, rect.getAnimation().get(0));
+    assertEquals(middle, rect.getAnimation().get(1));
+    assertEquals(late, rect.getAnimation().get(2));
+    assertEquals(40, rect.getTimeline().getMaxEndTime());
+    assertEquals(2, rect.getTimeline().countStartedBy(29));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testOverlappingAnimation() {
     AnimationModelImpl newModel = new AnimationModelImpl();
@@ -1,7 +1,9 @@
 import org.junit.Test;
 
 import model.AnimationModelImpl;
+import model.FrameBuffer;
 import model.IAnimationModel;
+import model.PackedAnimationModel;
 import model.animations.ColorChange;
 import model.animations.IAnimation;
 import model.animations.Move;
@@ -9,6 +11,9 @@ import model.animations.Scale;
 import model.shapes.IShape2D;
 import model.shapes.Oval;
 import model.shapes.Rectangle;
+import model.shapes.ShapeFrame;
+import model.shapes.ShapeTracks;
+import util.AnimationReader;
 import util.Color;
 import util.Position;
 
@@ -199,10 +204,10 @@ public class IShape2DTest {
     assertEquals(20.0, rectangleTest1.generateAnimatedShape(1).getSizeArg1(), 0.001);
     assertEquals(30.0, rectangleTest1.generateAnimatedShape(1).getSizeArg2(), 0.001);
     assertEquals(70.0, rectangleTest1.generateAnimatedShape(11).getSizeArg1(), 0.001);
-    assertEquals(80.0, rectangleTest1.generateAnimatedShape(11).getSizeArg2(), 0.001);
+    assertEquals(90.0, rectangleTest1.generateAnimatedShape(11).getSizeArg2(), 0.001);
 
     // Quarter way through the move.
-    assertEquals(35.0, rectangleTest1.generateAnimatedShape(7).getSizeArg1(), 0.001);
+    assertEquals(32.5, rectangleTest1.generateAnimatedShape(7).getSizeArg1(), 0.001);
     assertEquals(45.0, rectangleTest1.generateAnimatedShape(7).getSizeArg2(), 0.001);
   }
 
@@ -221,10 +226,10 @@ public class IShape2DTest {
     assertEquals(20.0, ovalTest.generateAnimatedShape(1).getSizeArg1(), 0.001);
     assertEquals(30.0, ovalTest.generateAnimatedShape(1).getSizeArg2(), 0.001);
     assertEquals(80.0, ovalTest.generateAnimatedShape(11).getSizeArg1(), 0.001);
-    assertEquals(90.0, ovalTest.generateAnimatedShape(11).getSizeArg2(), 0.001);
+    assertEquals(110.0, ovalTest.generateAnimatedShape(11).getSizeArg2(), 0.001);
 
     // Quarter way through the move.
-    assertEquals(40.0, ovalTest.generateAnimatedShape(7).getSizeArg1(), 0.001);
+    assertEquals(35.0, ovalTest.generateAnimatedShape(7).getSizeArg1(), 0.001);
     assertEquals(50.0, ovalTest.generateAnimatedShape(7).getSizeArg2(), 0.001);
   }
 
@@ -345,5 +350,102 @@ public class IShape2DTest {
     assertEquals(0, illegalOval.getSizeArg2(), 0.001);
   }
 
+  @Test
+  public void evaluateFrameTest() {
+    IAnimationModel model = new AnimationModelImpl();
+    IShape2D rectangle = new Rectangle("R1", new Position(0, 0),
+            new Color(255, 0, 0), 2, 100, 20, 30);
+    IShape2D oval = new Oval("O1", new Position(1, 2),
+            new Color(0, 0, 255), 2, 100, 20, 30);
+    model.addShape(rectangle);
+    model.addShape(oval);
+    for (String name : new String[]{"R1", "O1"}) {
+      model.addAnimation(new Move(name, 2, 6, new Position(0, 0), new Position(8, 4)));
+      model.addAnimation(new Scale(name, 6, 10, 20, 30, 40, 60));
+      model.addAnimation(new ColorChange(name, 10, 12, new Color(0, 0, 0),
+              new Color(100, 100, 100)));
+    }
+
+    ShapeFrame frame = new ShapeFrame();
+    rectangle.evaluateFrame(0, frame);
+    assertEquals(false, frame.isVisible());
+    assertEquals(0, frame.getX(), 0.001);
+    assertEquals(20, frame.getWidth(), 0.001);
+
+    rectangle.evaluateFrame(11, frame);
+    assertEquals(true, frame.isVisible());
+    assertEquals(8, frame.getX(), 0.001);
+    assertEquals(4, frame.getY(), 0.001);
+    assertEquals(60, frame.getWidth(), 0.001);
+    assertEquals(90, frame.getHeight(), 0.001);
+    assertEquals(177.5, frame.getRed(), 0.001);
+    assertEquals(50, frame.getGreen(), 0.001);
+
+    rectangle.evaluateFrame(8, frame);
+    assertEquals(40, frame.getWidth(), 0.001);
+    assertEquals(60, frame.getHeight(), 0.001);
+
+    oval.evaluateFrame(4, frame);
+    assertEquals(4.5, frame.getX(), 0.001);
+    assertEquals(3, frame.getY(), 0.001);
+    assertEquals(20, frame.getWidth(), 0.001);
+
+    oval.evaluateFrame(14, frame);
+    assertEquals(8, frame.getX(), 0.001);
+    assertEquals(60, frame.getWidth(), 0.001);
+    assertEquals(90, frame.getHeight(), 0.001);
+    assertEquals(100, frame.getBlue(), 0.001);
+  }
+
+  @Test
+  public void generateAnimatedShapeMatchesFrameTest() {
+    IAnimationModel model = AnimationReader.readFile("files/toh-3.txt",
+            new PackedAnimationModel.Builder());
+    ShapeFrame frame = new ShapeFrame();
+    FrameBuffer frames = new FrameBuffer();
+    for (int tick = 0; tick <= model.getEndTime() + 1; tick++) {
+      model.evaluateFrame(tick, frames);
+      for (int i = 0; i < model.getModelShapes().size(); i++) {
+        IShape2D shape = model.getModelShapes().get(i);
+        IShape2D state = shape.generateAnimatedShape(tick);
+        shape.evaluateFrame(tick, frame);
+        String at = shape.getName() + " at " + tick;
+        assertEquals(at, frame.isVisible(), frames.isVisible(i));
+        assertEquals(at, frame.getX(), state.getPosition().getX(), 1e-9);
+        assertEquals(at, frame.getY(), state.getPosition().getY(), 1e-9);
+        assertEquals(at, frame.getWidth(), state.getSizeArg1(), 1e-9);
+        assertEquals(at, frame.getHeight(), state.getSizeArg2(), 1e-9);
+        assertEquals(at, frame.getRed(), state.getColor().getRed(), 1e-9);
+        assertEquals(at, frame.getGreen(), state.getColor().getGreen(), 1e-9);
+        assertEquals(at, frame.getBlue(), state.getColor().getBlue(), 1e-9);
+        if (frame.isVisible()) {
+          assertEquals(at, frames.getX(i), state.getPosition().getX(), 1e-9);
+          assertEquals(at, frames.getY(i), state.getPosition().getY(), 1e-9);
+          assertEquals(at, frames.getWidth(i), state.getSizeArg1(), 1e-9);
+          assertEquals(at, frames.getHeight(i), state.getSizeArg2(), 1e-9);
+        }
+      }
+    }
+  }
 
-}
\ No newline at end of file
+  @Test
+  public void tracksTest() {
+    IAnimationModel model = new AnimationModelImpl();
+    IShape2D rectangle = new Rectangle("R1", new Position(0, 0),
+            new Color(255, 0, 0), 0, 100, 20, 30);
+    model.addShape(rectangle);
+    model.addAnimation(new Move("R1", 10, 20, new Position(0, 0), new Position(10, 0)));
+
+    ShapeTracks tracks = rectangle.getTracks();
+    assertEquals(3, tracks.getKeyCount(ShapeTracks.X));
+    assertEquals(1, tracks.getKeyCount(ShapeTracks.RED));
+    assertEquals(5, tracks.sample(ShapeTracks.X, 15), 0.001);
+    assertEquals(0, tracks.sample(ShapeTracks.X, 5), 0.001);
+
+    // Tracks are compiled again once the shape gets a new animation.
+    model.addAnimation(new Move("R1", 30, 40, new Position(10, 0), new Position(0, 0)));
+    assertEquals(5, rectangle.getTracks().getKeyCount(ShapeTracks.X));
+    assertEquals(5, rectangle.getTracks().sample(ShapeTracks.X, 35), 0.001);
+    assertEquals(10, rectangle.getTracks().sample(ShapeTracks.X, 25), 0.001);
+  }
+}
@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import util.AnimationReader;
+import view.OffscreenView;
+import view.ViewType;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents the test suite for the OffscreenView class, which renders frames without
+ * a display.
+ */
+public class OffscreenViewTest {
+
+  private static final String SCENE = "canvas 10 20 4 2\n"
+          + "shape R rectangle\n"
+          + "motion R 1 10 20 2 2 255 0 0    1 10 20 2 2 255 0 0\n"
+          + "motion R 1 10 20 2 2 255 0 0    3 12 20 2 2 0 0 255\n";
+
+  @Test
+  public void rawFramesTest() {
+    IAnimationModel model = AnimationReader.parseFile(new StringReader(SCENE),
+            new AnimationModelImpl.Builder());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    OffscreenView view = new OffscreenView(bytes);
+
+    assertEquals(ViewType.OFFSCREEN, view.getViewType());
+    assertEquals("", view.createView(model));
+
+    // One frame for every tick from 0 to the end time, 4 by 2 pixels of 3 bytes each.
+    byte[] frames = bytes.toByteArray();
+    int frameSize = 4 * 2 * 3;
+    assertEquals((model.getEndTime() + 1) * frameSize, frames.length);
+
+    // Before the shape appears the canvas is white.
+    assertEquals((byte) 255, frames[0]);
+    assertEquals((byte) 255, frames[2]);
+
+    // At tick 1 the top left pixel of the canvas is covered by the red rectangle.
+    assertEquals((byte) 255, frames[frameSize]);
+    assertEquals((byte) 0, frames[frameSize + 1]);
+    assertEquals((byte) 0, frames[frameSize + 2]);
+
+    // At tick 3 the rectangle has moved right by two pixels and turned blue.
+    int last = 3 * frameSize;
+    assertEquals((byte) 255, frames[last + 1]);
+    assertEquals((byte) 0, frames[last + 2 * 3]);
+    assertEquals((byte) 255, frames[last + 2 * 3 + 2]);
+  }
+}
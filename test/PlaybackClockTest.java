@@ -0,0 +1,77 @@
+import org.junit.Test;
+
+import view.PlaybackClock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the playback clock against a timer that is moved by hand.
+ */
+public class PlaybackClockTest {
+  private long now = 5_000_000_000L;
+
+  private PlaybackClock clock(int speed) {
+    return new PlaybackClock(speed, () -> this.now);
+  }
+
+  private void advanceMillis(long millis) {
+    this.now += millis * 1_000_000L;
+  }
+
+  @Test
+  public void testTickFollowsTime() {
+    PlaybackClock clock = clock(20);
+    assertEquals(0, clock.getTick());
+    advanceMillis(49);
+    assertEquals(0, clock.getTick());
+    advanceMillis(1);
+    assertEquals(1, clock.getTick());
+    // a late frame skips the ticks it missed instead of slowing down
+    advanceMillis(1000);
+    assertEquals(21, clock.getTick());
+    assertEquals(23, clock.getTickAfter(100));
+  }
+
+  @Test
+  public void testPauseAndPlay() {
+    PlaybackClock clock = clock(10);
+    advanceMillis(350);
+    clock.pause();
+    assertTrue(clock.isPaused());
+    advanceMillis(5000);
+    assertEquals(3, clock.getTick());
+    assertEquals(3, clock.getTickAfter(1000));
+    clock.play();
+    assertFalse(clock.isPaused());
+    advanceMillis(50);
+    assertEquals(4, clock.getTick());
+  }
+
+  @Test
+  public void testSetTickAndSpeed() {
+    PlaybackClock clock = clock(10);
+    advanceMillis(1000);
+    clock.setSpeed(100);
+    assertEquals(10, clock.getTick());
+    advanceMillis(100);
+    assertEquals(20, clock.getTick());
+    clock.setTick(0);
+    assertEquals(0, clock.getTick());
+    advanceMillis(10);
+    assertEquals(1, clock.getTick());
+  }
+
+  @Test
+  public void testFrameDelay() {
+    assertEquals(100, clock(1).getFrameDelay());
+    assertEquals(50, clock(20).getFrameDelay());
+    assertEquals(15, clock(1000).getFrameDelay());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSpeedMustBePositive() {
+    clock(0);
+  }
+}
@@ -0,0 +1,85 @@
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import model.AnimationModelImpl;
+import model.FrameBuffer;
+import model.IAnimationModel;
+import util.AnimationReader;
+import util.SceneGenerator;
+import view.TextView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the synthetic scene generator.
+ */
+public class SceneGeneratorTest {
+
+  private static String text(SceneGenerator generator) throws Exception {
+    StringBuilder out = new StringBuilder();
+    generator.write(out);
+    return out.toString();
+  }
+
+  @Test
+  public void testSameSeedSameScene() throws Exception {
+    String first = text(new SceneGenerator(42).setShapeCount(50));
+    assertEquals(first, text(new SceneGenerator(42).setShapeCount(50)));
+    assertFalse(first.equals(text(new SceneGenerator(43).setShapeCount(50))));
+  }
+
+  @Test
+  public void testWrittenFileReadsLikeGeneratedModel() throws Exception {
+    SceneGenerator generator = new SceneGenerator(7).setShapeCount(40).setMotionsPerShape(6)
+            .setTickRange(1, 300).setChangeShares(0.5, 0.25).setOverlap(0.5);
+    String text = text(generator);
+    assertTrue(text.startsWith("canvas 0 0 800 800\nshape S0 "));
+    assertEquals(1 + 40 + generator.getMotionCount(), text.split("\n").length);
+
+    IAnimationModel read = AnimationReader.parseFile(new StringReader(text),
+            new AnimationModelImpl.Builder());
+    IAnimationModel built = generator.generate(new AnimationModelImpl.Builder());
+    assertEquals(40, built.getModelShapes().size());
+    assertEquals(new TextView().createView(read), new TextView().createView(built));
+  }
+
+  @Test
+  public void testTicksAfterOneThousand() {
+    IAnimationModel model = new SceneGenerator(3).setShapeCount(20).setTickRange(2000, 5000)
+            .generate(new AnimationModelImpl.Builder());
+    assertEquals(20, model.getModelShapes().size());
+    assertTrue(model.getEndTime() > 2000 && model.getEndTime() <= 5000);
+    for (int i = 0; i < 20; i++) {
+      assertTrue(model.getModelShapes().get(i).getStartTime() >= 2000);
+    }
+  }
+
+  @Test
+  public void testNoOverlap() {
+    IAnimationModel model = new SceneGenerator(11).setShapeCount(30).setMotionsPerShape(8)
+            .setTickRange(1, 100).setOverlap(0).generate(new AnimationModelImpl.Builder());
+    FrameBuffer frame = new FrameBuffer();
+    for (int tick = 0; tick <= 100; tick += 3) {
+      model.evaluateFrame(tick, frame);
+      for (int i = 0; i < frame.getSize(); i++) {
+        for (int j = i + 1; j < frame.getSize(); j++) {
+          if (frame.isVisible(i) && frame.isVisible(j)) {
+            assertFalse("tick " + tick + ": " + i + " and " + j,
+                    frame.getX(i) < frame.getX(j) + frame.getWidth(j)
+                            && frame.getX(j) < frame.getX(i) + frame.getWidth(i)
+                            && frame.getY(i) < frame.getY(j) + frame.getHeight(j)
+                            && frame.getY(j) < frame.getY(i) + frame.getHeight(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSharesAddUpToAtMostOne() {
+    new SceneGenerator(1).setChangeShares(0.6, 0.6);
+  }
+}
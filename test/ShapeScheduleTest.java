@@ -0,0 +1,142 @@
+import org.junit.Test;
+
+import java.io.FileReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.AnimationModelImpl;
+import model.FrameBuffer;
+import model.IAnimationModel;
+import model.ShapeSchedule;
+import model.animations.Move;
+import model.shapes.IShape2D;
+import model.shapes.Rectangle;
+import util.AnimationBuilder;
+import util.AnimationReader;
+import util.Color;
+import util.Position;
+import view.FrameEvaluator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * This class represents the test suite for the ShapeSchedule class, which keeps the set of shapes
+ * on screen at a tick.
+ */
+public class ShapeScheduleTest {
+
+  private IAnimationModel randomModel(Random random, int shapes) {
+    IAnimationModel model = new AnimationModelImpl();
+    for (int i = 0; i < shapes; i++) {
+      int start = random.nextInt(50);
+      String name = "S" + i;
+      model.addShape(new Rectangle(name, new Position(0, 0), new Color(0, 0, 0), start, 100,
+              1, 1));
+      if (random.nextInt(5) > 0) {
+        int end = start + random.nextInt(30);
+        model.addAnimation(new Move(name, start, end, new Position(0, 0), new Position(1, 1)));
+      }
+    }
+    return model;
+  }
+
+  private List<Integer> onScreen(List<IShape2D> shapes, int tick) {
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < shapes.size(); i++) {
+      IShape2D shape = shapes.get(i);
+      int lastEnd = shape.getTimeline().getMaxEndTime();
+      if (shape.getStartTime() <= tick && (lastEnd < 0 || tick <= lastEnd)) {
+        expected.add(i);
+      }
+    }
+    return expected;
+  }
+
+  @Test
+  public void testAdvanceMatchesShapeTimes() {
+    Random random = new Random(3);
+    IAnimationModel model = randomModel(random, 300);
+    List<IShape2D> shapes = model.getModelShapes();
+    ShapeSchedule schedule = new ShapeSchedule(shapes);
+    int[] ticks = {0, 1, 2, 5, 5, 17, 40, 41, 79, 80, 200, 3, 30, 31, 90, -1, 60};
+    for (int tick : ticks) {
+      schedule.advanceTo(tick);
+      List<Integer> active = new ArrayList<>();
+      for (int position = 0; position < schedule.getActiveCount(); position++) {
+        active.add(schedule.getActive(position));
+      }
+      assertEquals("tick " + tick, onScreen(shapes, tick), active);
+    }
+  }
+
+  @Test
+  public void testDisappearTime() {
+    IAnimationModel model = new AnimationModelImpl();
+    model.addShape(new Rectangle("A", new Position(0, 0), new Color(0, 0, 0), 5, 100, 1, 1));
+    model.addShape(new Rectangle("B", new Position(0, 0), new Color(0, 0, 0), 5, 100, 1, 1));
+    model.addAnimation(new Move("A", 5, 12, new Position(0, 0), new Position(1, 1)));
+    ShapeSchedule schedule = new ShapeSchedule(model.getModelShapes());
+
+    assertEquals(5, schedule.getAppearTime(0));
+    assertEquals(13, schedule.getDisappearTime(0));
+    assertEquals(Integer.MAX_VALUE, schedule.getDisappearTime(1));
+  }
+
+  @Test
+  public void testEvaluateActiveOnly() {
+    IAnimationModel model = randomModel(new Random(5), 50);
+    ShapeSchedule schedule = new ShapeSchedule(model.getModelShapes());
+    FrameBuffer active = new FrameBuffer();
+    FrameBuffer all = new FrameBuffer();
+    for (int tick = 0; tick < 90; tick += 7) {
+      schedule.advanceTo(tick);
+      schedule.copyActiveTo(active);
+      model.evaluateActive(tick, active, 0, active.getActiveCount());
+      model.evaluateFrame(tick, all);
+
+      assertEquals(all.getActiveCount(), active.getActiveCount());
+      for (int position = 0; position < all.getActiveCount(); position++) {
+        int i = all.getActive(position);
+        assertEquals(i, active.getActive(position));
+        assertEquals(all.getX(i), active.getX(i), 1e-9);
+        assertEquals(all.getRgb(i), active.getRgb(i));
+      }
+    }
+  }
+
+  @Test
+  public void testModelFilledAfterSetModel() throws Exception {
+    // the views are given the model before the animation file is read into it
+    AnimationBuilder<IAnimationModel> builder = new AnimationModelImpl.Builder();
+    FrameEvaluator evaluator = new FrameEvaluator();
+    evaluator.setModel(builder.build());
+    assertEquals(0, evaluator.frameAt(50).getActiveCount());
+
+    try (Reader in = new FileReader("files/toh-3.txt")) {
+      AnimationReader.parseFile(in, builder);
+    }
+    assertEquals(3, evaluator.frameAt(50).getActiveCount());
+    assertEquals(3, evaluator.frameAt(51).getActiveCount());
+  }
+
+  @Test
+  public void testCanvasReadAfterSetModel() {
+    AnimationBuilder<IAnimationModel> builder = new AnimationModelImpl.Builder();
+    FrameEvaluator evaluator = new FrameEvaluator();
+    evaluator.setModel(builder.build());
+    AnimationReader.parseFile(new StringReader("canvas 0 0 100 100\n"
+            + "shape In rectangle\n"
+            + "shape Out rectangle\n"
+            + "motion In 1 10 10 20 20 255 0 0    20 10 10 20 20 255 0 0\n"
+            + "motion Out 1 500 500 20 20 0 0 255    20 500 500 20 20 0 0 255\n"), builder);
+
+    // a viewport that takes in the whole canvas of the file is not culled by the grid
+    assertEquals(2, evaluator.frameAt(5, new java.awt.Rectangle(0, 0, 100, 100))
+            .getActiveCount());
+    assertEquals(1, evaluator.frameAt(6, new java.awt.Rectangle(0, 0, 50, 50))
+            .getActiveCount());
+  }
+}
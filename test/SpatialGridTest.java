@@ -0,0 +1,122 @@
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import model.AnimationModelImpl;
+import model.FrameBuffer;
+import model.IAnimationModel;
+import model.ShapeSchedule;
+import model.SpatialGrid;
+import model.animations.Move;
+import model.animations.Scale;
+import model.shapes.IShape2D;
+import model.shapes.Rectangle;
+import util.Color;
+import util.Position;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents the test suite for the SpatialGrid class, which finds the shapes that may
+ * overlap a viewport.
+ */
+public class SpatialGridTest {
+
+  private IAnimationModel randomModel(Random random, int shapes) {
+    IAnimationModel model = new AnimationModelImpl();
+    model.setCanvas(0, 0, 400, 400);
+    for (int i = 0; i < shapes; i++) {
+      String name = "S" + i;
+      Position position = new Position(random.nextInt(500) - 50, random.nextInt(500) - 50);
+      int start = random.nextInt(40);
+      model.addShape(new Rectangle(name, position, new Color(0, 0, 0), start, 100,
+              1 + random.nextInt(random.nextInt(10) == 0 ? 400 : 20), 1 + random.nextInt(20)));
+      int time = start;
+      for (int k = random.nextInt(4); k > 0; k--) {
+        int end = time + 1 + random.nextInt(15);
+        if (random.nextBoolean()) {
+          Position target = new Position(random.nextInt(500) - 50, random.nextInt(500) - 50);
+          model.addAnimation(new Move(name, time, end, position, target));
+          position = target;
+        } else {
+          model.addAnimation(new Scale(name, time, end, 1, 1, random.nextInt(10),
+                  random.nextInt(10)));
+        }
+        time = end + random.nextInt(5);
+      }
+    }
+    return model;
+  }
+
+  @Test
+  public void testFindsEveryShapeInViewport() {
+    Random random = new Random(11);
+    IAnimationModel model = randomModel(random, 400);
+    List<IShape2D> shapes = model.getModelShapes();
+    ShapeSchedule schedule = new ShapeSchedule(shapes);
+    SpatialGrid grid = new SpatialGrid(shapes, schedule, 0, 0, 400, 400);
+    FrameBuffer all = new FrameBuffer();
+    FrameBuffer found = new FrameBuffer();
+
+    int tick = 0;
+    for (int step = 0; step < 300; step++) {
+      tick = random.nextInt(10) == 0 ? random.nextInt(100) : tick + random.nextInt(3);
+      int x = random.nextInt(450) - 25;
+      int y = random.nextInt(450) - 25;
+      int width = random.nextInt(150);
+      int height = random.nextInt(150);
+      grid.advanceTo(tick);
+      grid.copyVisibleTo(found, x, y, width, height);
+      model.evaluateFrame(tick, all);
+
+      Set<Integer> listed = new HashSet<>();
+      for (int position = 0; position < found.getActiveCount(); position++) {
+        int i = found.getActive(position);
+        assertTrue(position == 0 || found.getActive(position - 1) < i);
+        assertTrue(all.isVisible(i));
+        listed.add(i);
+      }
+      for (int position = 0; position < all.getActiveCount(); position++) {
+        int i = all.getActive(position);
+        double left = Math.min(all.getX(i), all.getX(i) + all.getWidth(i));
+        double right = Math.max(all.getX(i), all.getX(i) + all.getWidth(i));
+        double top = Math.min(all.getY(i), all.getY(i) + all.getHeight(i));
+        double bottom = Math.max(all.getY(i), all.getY(i) + all.getHeight(i));
+        if (right >= x && left <= x + width && bottom >= y && top <= y + height) {
+          assertTrue("tick " + tick + " shape " + i, listed.contains(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSmallViewportSkipsDistantShapes() {
+    IAnimationModel model = new AnimationModelImpl();
+    model.setCanvas(0, 0, 1000, 1000);
+    model.addShape(new Rectangle("Near", new Position(10, 10), new Color(0, 0, 0), 0, 100,
+            5, 5));
+    model.addShape(new Rectangle("Far", new Position(900, 900), new Color(0, 0, 0), 0, 100,
+            5, 5));
+    model.addAnimation(new Move("Far", 40, 50, new Position(900, 900), new Position(20, 20)));
+    ShapeSchedule schedule = new ShapeSchedule(model.getModelShapes());
+    SpatialGrid grid = new SpatialGrid(model.getModelShapes(), schedule, 0, 0, 1000, 1000);
+    FrameBuffer frame = new FrameBuffer();
+
+    grid.advanceTo(0);
+    grid.copyVisibleTo(frame, 0, 0, 50, 50);
+    assertEquals(1, frame.getActiveCount());
+    assertEquals(0, frame.getActive(0));
+
+    grid.advanceTo(50);
+    grid.copyVisibleTo(frame, 0, 0, 50, 50);
+    assertEquals(2, frame.getActiveCount());
+
+    grid.advanceTo(51);
+    grid.copyVisibleTo(frame, 0, 0, 50, 50);
+    assertEquals(1, frame.getActiveCount());
+  }
+}
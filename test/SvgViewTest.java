@@ -0,0 +1,107 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import model.AnimationModelImpl;
+import model.IAnimationModel;
+import model.animations.ColorChange;
+import model.animations.Move;
+import model.animations.Scale;
+import model.shapes.Oval;
+import model.shapes.Rectangle;
+import util.AnimationReader;
+import util.Color;
+import util.Position;
+import view.SvgView;
+import view.ViewFactory;
+import view.ViewType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class represents the test suite for the SvgView class.
+ */
+public class SvgViewTest {
+
+  private IAnimationModel smallModel() {
+    IAnimationModel model = new AnimationModelImpl();
+    model.setCanvas(0, 10, 100, 50);
+    model.setTick(2);
+    model.addShape(new Rectangle("R", new Position(10, 20),
+            new Color(255, 0, 0), 1, 5, 2, 4));
+    model.addShape(new Oval("O", new Position(0, 0),
+            new Color(0, 0, 255), 2, 4, 10, 6));
+    model.addAnimation(new Move("R", 1, 3, new Position(10, 20), new Position(12, 20)));
+    model.addAnimation(new ColorChange("R", 3, 5, new Color(255, 0, 0),
+            new Color(0, 255, 0)));
+    model.addAnimation(new Scale("O", 2, 4, 10, 6, 5, 0));
+    return model;
+  }
+
+  @Test
+  public void testCreateView() {
+    SvgView view = new SvgView();
+    assertEquals(ViewType.SVG, view.getViewType());
+    assertEquals("<svg width=\"100\" height=\"50\" viewBox=\"0 10 100 50\" version=\"1.1\" "
+                    + "xmlns=\"http://www.w3.org/2000/svg\">\n"
+                    + "<rect id=\"R\" x=\"10\" y=\"20\" width=\"2\" height=\"4\" "
+                    + "fill=\"rgb(255,0,0)\" visibility=\"hidden\">\n"
+                    + "  <set attributeType=\"xml\" begin=\"500ms\" attributeName=\"visibility\" "
+                    + "to=\"visible\" fill=\"freeze\" />\n"
+                    + "  <animate attributeType=\"xml\" begin=\"500ms\" dur=\"1000ms\" "
+                    + "attributeName=\"x\" from=\"10\" to=\"12\" fill=\"freeze\" />\n"
+                    + "  <animate attributeType=\"xml\" begin=\"1500ms\" dur=\"1000ms\" "
+                    + "attributeName=\"fill\" from=\"rgb(255,0,0)\" to=\"rgb(0,255,0)\" "
+                    + "fill=\"freeze\" />\n"
+                    + "  <set attributeType=\"xml\" begin=\"3000ms\" attributeName=\"visibility\" "
+                    + "to=\"hidden\" fill=\"freeze\" />\n"
+                    + "</rect>\n"
+                    + "<ellipse id=\"O\" cx=\"5\" cy=\"3\" rx=\"5\" ry=\"3\" "
+                    + "fill=\"rgb(0,0,255)\" visibility=\"hidden\">\n"
+                    + "  <set attributeType=\"xml\" begin=\"1000ms\" attributeName=\"visibility\" "
+                    + "to=\"visible\" fill=\"freeze\" />\n"
+                    + "  <animate attributeType=\"xml\" begin=\"1000ms\" dur=\"1000ms\" "
+                    + "attributeName=\"cx\" from=\"5\" to=\"7.5\" fill=\"freeze\" />\n"
+                    + "  <animate attributeType=\"xml\" begin=\"1000ms\" dur=\"1000ms\" "
+                    + "attributeName=\"rx\" from=\"5\" to=\"7.5\" fill=\"freeze\" />\n"
+                    + "  <set attributeType=\"xml\" begin=\"2500ms\" attributeName=\"visibility\" "
+                    + "to=\"hidden\" fill=\"freeze\" />\n"
+                    + "</ellipse>\n"
+                    + "</svg>\n",
+            view.createView(smallModel()));
+  }
+
+  @Test
+  public void testEllipseMovedAndScaledTogether() {
+    IAnimationModel model = new AnimationModelImpl();
+    model.addShape(new Oval("O", new Position(0, 0), new Color(0, 0, 255), 2, 4, 10, 6));
+    // the builder adds a scale and then a move for a motion changing both size and position
+    model.addAnimation(new Scale("O", 2, 4, 10, 6, 10, 0));
+    model.addAnimation(new Move("O", 2, 4, new Position(0, 0), new Position(5, 0)));
+    String svg = new SvgView().createView(model);
+
+    assertEquals(1, svg.split("attributeName=\"cx\"", -1).length - 1);
+    assertTrue(svg.contains("attributeName=\"cx\" from=\"5\" to=\"15\""));
+    assertTrue(svg.contains("attributeName=\"rx\" from=\"5\" to=\"10\""));
+    assertEquals(-1, svg.indexOf("attributeName=\"cy\""));
+  }
+
+  @Test
+  public void testWriteViewMatchesCreateView() throws IOException {
+    IAnimationModel model = AnimationReader.readFile("files/toh-5.txt",
+            new AnimationModelImpl.Builder());
+    StringWriter out = new StringWriter();
+    new SvgView().writeView(model, out);
+    assertEquals(new SvgView().createView(model), out.toString());
+    assertTrue(out.toString().startsWith("<svg "));
+    assertTrue(out.toString().endsWith("</svg>\n"));
+  }
+
+  @Test
+  public void testViewFactory() {
+    assertEquals(ViewType.SVG,
+            new ViewFactory().viewFactoryImpl("svg", smallModel()).getViewType());
+  }
+}
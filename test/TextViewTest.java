@@ -1,5 +1,9 @@
 import org.junit.Test;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+
 import model.AnimationModelImpl;
 import model.IAnimationModel;
 import model.animations.ColorChange;
@@ -9,12 +13,14 @@ import model.animations.Scale;
 import model.shapes.IShape2D;
 import model.shapes.Oval;
 import model.shapes.Rectangle;
+import util.AnimationReader;
 import util.Color;
 import util.Position;
 import view.IView;
 import view.TextView;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * This class represents the test suite for the methods present in TextView class and tests all of
@@ -85,4 +91,90 @@ public class TextViewTest {
             view.createView(model));
 
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testWriteView() throws IOException {
+    IAnimationModel model = AnimationReader.readFile("files/toh-3.txt",
+            new AnimationModelImpl.Builder());
+    String expected = new TextView().createView(model);
+
+    StringWriter out = new StringWriter();
+    BufferedWriter writer = new BufferedWriter(out);
+    new TextView().writeView(model, writer);
+    writer.flush();
+    assertEquals(expected, out.toString());
+
+    // The view is written piece by piece, never as one string.
+    int[] longest = {0};
+    new TextView().writeView(model, new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        longest[0] = Math.max(longest[0], csq.length());
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        return append(String.valueOf(c));
+      }
+    });
+    assertTrue(longest[0] < 200);
+  }
+
+  @Test
+  public void testWriteViewStreamsLargeScene() throws IOException {
+    IAnimationModel model = AnimationReader.readFile("files/toh-8.txt",
+            new AnimationModelImpl.Builder());
+    String expected = new TextView().createView(model);
+
+    // The output is handed every shape and animation as it is described, never a run of them.
+    StringBuilder written = new StringBuilder();
+    int[] pieces = {0};
+    int[] longest = {0};
+    new TextView().writeView(model, new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        pieces[0]++;
+        longest[0] = Math.max(longest[0], csq.length());
+        written.append(csq);
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        return append(String.valueOf(c));
+      }
+    });
+    assertEquals(expected, written.toString());
+    assertTrue(pieces[0] > model.getModelShapes().size());
+    assertTrue(longest[0] < 200);
+  }
+
+  @Test
+  public void testCreateViewKeepsModelOrder() {
+    IAnimationModel model = new AnimationModelImpl();
+    model.addShape(new Rectangle("Late", new Position(0, 0),
+            new Color(0, 255, 0), 20, 30, 5, 4));
+    model.addShape(new Rectangle("Early", new Position(1, 1),
+            new Color(255, 0, 0), 5, 10, 3, 4));
+    model.addAnimation(new Move("Late", 20, 30, new Position(0, 0), new Position(1, 1)));
+    model.addAnimation(new Move("Early", 5, 10, new Position(1, 1), new Position(2, 2)));
+
+    String view = new TextView().createView(model);
+
+    assertTrue(view.indexOf("Name: Early") < view.indexOf("Name: Late"));
+    assertTrue(view.indexOf("Shape Early moves") < view.indexOf("Shape Late moves"));
+    assertEquals("Late", model.getModelShapes().get(0).getName());
+    assertEquals("Early", model.getModelShapes().get(1).getName());
+  }
+}